@@ -0,0 +1,48 @@
+package worms.benchmark;
+
+/**
+ * A single operation that is timed by a {@link BenchmarkRunner}.
+ *
+ * The name identifies the benchmark and its parameters (e.g.
+ * "isImpassable level=Skulls radius=0.5"), so that results of different runs
+ * can be compared line by line.
+ */
+public abstract class Benchmark {
+
+	private final String name;
+
+	protected Benchmark(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Prepares the state of this benchmark; called once before its first
+	 * iteration, and not timed
+	 */
+	public void setUp() throws Exception {
+	}
+
+	/**
+	 * Performs the benchmarked operation once; everything the operation
+	 * computes must be passed to the given blackhole
+	 */
+	public abstract void run(Blackhole blackhole) throws Exception;
+
+	/**
+	 * Number of operations that a single call to {@link #run(Blackhole)}
+	 * performs; results are reported per operation
+	 */
+	public int getOperationsPerRun() {
+		return 1;
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+}
@@ -0,0 +1,129 @@
+package worms.benchmark;
+
+/**
+ * Measurements of a single benchmark, averaged over its measurement
+ * iterations.
+ */
+public class BenchmarkResult {
+
+	private final String name;
+	private final double[] throughputs;
+	private final long nbOperations;
+	private final long nanos;
+	private final long allocatedBytes;
+	private final long nbCollections;
+	private final long collectionMillis;
+
+	/**
+	 * @param throughputs
+	 *            Throughput of each measurement iteration (operations per
+	 *            second)
+	 * @param nbOperations
+	 *            Total number of operations over all measurement iterations
+	 * @param nanos
+	 *            Total duration of all measurement iterations
+	 * @param allocatedBytes
+	 *            Bytes allocated by the benchmark thread during all
+	 *            measurement iterations, or -1 if not supported by the JVM
+	 * @param nbCollections
+	 *            Number of garbage collections during all measurement
+	 *            iterations
+	 * @param collectionMillis
+	 *            Time spent in these garbage collections
+	 */
+	public BenchmarkResult(String name, double[] throughputs,
+			long nbOperations, long nanos, long allocatedBytes,
+			long nbCollections, long collectionMillis) {
+		this.name = name;
+		this.throughputs = throughputs.clone();
+		this.nbOperations = nbOperations;
+		this.nanos = nanos;
+		this.allocatedBytes = allocatedBytes;
+		this.nbCollections = nbCollections;
+		this.collectionMillis = collectionMillis;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getNbOperations() {
+		return nbOperations;
+	}
+
+	/**
+	 * Mean throughput over the measurement iterations (operations per second)
+	 */
+	public double getThroughput() {
+		double sum = 0;
+		for (double throughput : throughputs) {
+			sum += throughput;
+		}
+		return sum / throughputs.length;
+	}
+
+	/**
+	 * Standard deviation of the throughput over the measurement iterations
+	 */
+	public double getThroughputError() {
+		if (throughputs.length < 2) {
+			return Double.NaN;
+		}
+		double mean = getThroughput();
+		double sum = 0;
+		for (double throughput : throughputs) {
+			sum += (throughput - mean) * (throughput - mean);
+		}
+		return Math.sqrt(sum / (throughputs.length - 1));
+	}
+
+	/**
+	 * Average time per operation (in nanoseconds)
+	 */
+	public double getNanosPerOperation() {
+		return (double) nanos / nbOperations;
+	}
+
+	/**
+	 * Average number of bytes allocated per operation, or NaN if unknown
+	 */
+	public double getBytesPerOperation() {
+		if (allocatedBytes < 0) {
+			return Double.NaN;
+		}
+		return (double) allocatedBytes / nbOperations;
+	}
+
+	/**
+	 * Allocation rate (in MB per second), or NaN if unknown
+	 */
+	public double getAllocationRate() {
+		if (allocatedBytes < 0) {
+			return Double.NaN;
+		}
+		return allocatedBytes / 1e6 / (nanos / 1e9);
+	}
+
+	public long getNbCollections() {
+		return nbCollections;
+	}
+
+	public long getCollectionMillis() {
+		return collectionMillis;
+	}
+
+	public static String getHeader() {
+		return String.format("%-60s %14s %12s %12s %10s %10s %5s %6s",
+				"Benchmark", "ops/s", "error", "ns/op", "B/op", "MB/s", "gc",
+				"gc ms");
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-60s %14.1f %12.1f %12.1f %10.1f %10.1f %5d %6d",
+				getName(), getThroughput(), getThroughputError(),
+				getNanosPerOperation(), getBytesPerOperation(),
+				getAllocationRate(), getNbCollections(), getCollectionMillis());
+	}
+
+}
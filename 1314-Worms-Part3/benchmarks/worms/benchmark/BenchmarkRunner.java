@@ -0,0 +1,177 @@
+package worms.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Runs benchmarks in the current JVM, and reports their throughput, time per
+ * operation and allocations.
+ *
+ * Every benchmark first runs a number of warmup iterations, so that its code
+ * is compiled, and then a number of measurement iterations of a fixed
+ * duration. Operations are timed in batches, so that reading the clock does
+ * not dominate short operations. Allocations are measured per thread, and
+ * garbage collections over the whole JVM.
+ *
+ * Options (all optional):
+ * <ul>
+ * <li>-filter regex: only run benchmarks whose name contains a match</li>
+ * <li>-warmup n: number of warmup iterations (default 3)</li>
+ * <li>-iterations n: number of measurement iterations (default 5)</li>
+ * <li>-time ms: duration of each iteration (default 1000)</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+	private static final long MIN_BATCH_NANOS = 100000;
+
+	private Pattern filter = null;
+	private int nbWarmupIterations = 3;
+	private int nbIterations = 5;
+	private long iterationNanos = 1000000000L;
+
+	private final Blackhole blackhole = new Blackhole();
+
+	/**
+	 * Creates a runner with the options in the given command line arguments
+	 */
+	public BenchmarkRunner(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (i + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + arg);
+			}
+			String value = args[++i];
+			if ("-filter".equals(arg)) {
+				filter = Pattern.compile(value);
+			} else if ("-warmup".equals(arg)) {
+				nbWarmupIterations = Integer.parseInt(value);
+			} else if ("-iterations".equals(arg)) {
+				nbIterations = Integer.parseInt(value);
+			} else if ("-time".equals(arg)) {
+				iterationNanos = Long.parseLong(value) * 1000000L;
+			} else {
+				throw new IllegalArgumentException("Unknown option: " + arg);
+			}
+		}
+		if (nbWarmupIterations < 0 || nbIterations < 1 || iterationNanos <= 0) {
+			throw new IllegalArgumentException("Invalid iteration options");
+		}
+	}
+
+	public boolean isSelected(Benchmark benchmark) {
+		return filter == null || filter.matcher(benchmark.getName()).find();
+	}
+
+	/**
+	 * Runs all selected benchmarks of the given list in order, prints each
+	 * result as soon as it is known, and returns all results. A benchmark that
+	 * fails is reported, and does not stop the others.
+	 */
+	public List<BenchmarkResult> run(List<? extends Benchmark> benchmarks) {
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+		System.out.println(BenchmarkResult.getHeader());
+		for (Benchmark benchmark : benchmarks) {
+			if (isSelected(benchmark)) {
+				try {
+					BenchmarkResult result = run(benchmark);
+					System.out.println(result);
+					results.add(result);
+				} catch (Exception e) {
+					System.out.println(String.format("%-60s FAILED: %s",
+							benchmark.getName(), e));
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Runs a single benchmark
+	 */
+	public BenchmarkResult run(Benchmark benchmark) throws Exception {
+		benchmark.setUp();
+		for (int i = 0; i < nbWarmupIterations; i++) {
+			runIteration(benchmark);
+		}
+
+		double[] throughputs = new double[nbIterations];
+		long nbOperations = 0;
+		long nanos = 0;
+		long allocatedBefore = getAllocatedBytes();
+		long nbCollectionsBefore = getNbCollections();
+		long collectionMillisBefore = getCollectionMillis();
+		for (int i = 0; i < nbIterations; i++) {
+			long[] iteration = runIteration(benchmark);
+			throughputs[i] = iteration[0] / (iteration[1] / 1e9);
+			nbOperations += iteration[0];
+			nanos += iteration[1];
+		}
+		long allocatedAfter = getAllocatedBytes();
+		long allocated = (allocatedBefore < 0 || allocatedAfter < 0) ? -1
+				: allocatedAfter - allocatedBefore;
+		return new BenchmarkResult(benchmark.getName(), throughputs,
+				nbOperations, nanos, allocated, getNbCollections()
+						- nbCollectionsBefore, getCollectionMillis()
+						- collectionMillisBefore);
+	}
+
+	/**
+	 * Runs operations for the duration of an iteration, and returns the
+	 * number of operations and the time they took
+	 */
+	private long[] runIteration(Benchmark benchmark) throws Exception {
+		long nbOperations = 0;
+		long nanos = 0;
+		int batch = 1;
+		while (nanos < iterationNanos) {
+			long start = System.nanoTime();
+			for (int i = 0; i < batch; i++) {
+				benchmark.run(blackhole);
+			}
+			long batchNanos = System.nanoTime() - start;
+			nbOperations += (long) batch * benchmark.getOperationsPerRun();
+			nanos += batchNanos;
+			if (batchNanos < MIN_BATCH_NANOS && batch < (1 << 24)) {
+				batch *= 2;
+			}
+		}
+		return new long[] { nbOperations, nanos };
+	}
+
+	private static long getAllocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+			if (allocations.isThreadAllocatedMemorySupported()
+					&& allocations.isThreadAllocatedMemoryEnabled()) {
+				return allocations.getThreadAllocatedBytes(Thread
+						.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	private static long getNbCollections() {
+		long result = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory
+				.getGarbageCollectorMXBeans()) {
+			result += Math.max(0, gc.getCollectionCount());
+		}
+		return result;
+	}
+
+	private static long getCollectionMillis() {
+		long result = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory
+				.getGarbageCollectorMXBeans()) {
+			result += Math.max(0, gc.getCollectionTime());
+		}
+		return result;
+	}
+
+}
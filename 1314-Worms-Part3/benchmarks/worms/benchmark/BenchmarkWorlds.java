@@ -0,0 +1,51 @@
+package worms.benchmark;
+
+import java.util.Random;
+
+import worms.gui.Level;
+import worms.model.World;
+
+/**
+ * Creates worlds from the levels that come with the game, with a fixed seed
+ * so that every run of a benchmark starts from the same state.
+ *
+ * Levels are read from the levels directory, so benchmarks must be run from
+ * the project directory.
+ */
+public final class BenchmarkWorlds {
+
+	private BenchmarkWorlds() {
+	}
+
+	/**
+	 * Names of the levels on which benchmarks run, from small to large maps
+	 */
+	public static final String[] LEVEL_NAMES = { "Simple", "Blocks",
+			"Skulls-lowres", "Skulls" };
+
+	public static final long SEED = 3;
+
+	/**
+	 * Returns the loaded level with the given name
+	 */
+	public static Level getLevel(String name) {
+		for (Level level : Level.getAvailableLevels()) {
+			if (level.getName().equals(name)) {
+				level.load();
+				return level;
+			}
+		}
+		throw new IllegalArgumentException("Unknown level: " + name);
+	}
+
+	/**
+	 * Creates a new world, without game objects, on the level with the given
+	 * name
+	 */
+	public static World createWorld(String levelName) {
+		Level level = getLevel(levelName);
+		return new World(level.getWorldWidth(), level.getWorldHeight(),
+				level.getPassableMap(), new Random(SEED));
+	}
+
+}
@@ -0,0 +1,52 @@
+package worms.benchmark;
+
+/**
+ * Consumes the results of benchmarked operations, so that the JIT compiler
+ * cannot eliminate the computations that produce them.
+ *
+ * Consuming a value compares it to fields that are read on every call but
+ * never match, which costs a few nanoseconds and does not allocate.
+ * Primitive values are consumed without boxing.
+ */
+public final class Blackhole {
+
+	private volatile Object object = new Object();
+	private volatile double double1 = Double.NaN;
+	private volatile double double2 = 0.0;
+	private volatile long long1 = 1;
+	private volatile long long2 = 2;
+	private volatile boolean boolean1 = false;
+	private volatile boolean boolean2 = true;
+
+	private Object tripped;
+
+	public void consume(Object value) {
+		if (value == object) {
+			tripped = value;
+		}
+	}
+
+	public void consume(double value) {
+		if (value == double1 && value == double2) {
+			tripped = this;
+		}
+	}
+
+	public void consume(long value) {
+		if (value == long1 && value == long2) {
+			tripped = this;
+		}
+	}
+
+	public void consume(boolean value) {
+		if (value == boolean1 && value == boolean2) {
+			tripped = this;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Blackhole" + (tripped == null ? "" : "!");
+	}
+
+}
@@ -0,0 +1,209 @@
+package worms.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import worms.gui.game.IActionHandler;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ParseOutcome;
+
+/**
+ * Benchmarks of parsing and executing every program in the programs
+ * directory.
+ *
+ * Execution runs a number of turns for a number of agents, each with its own
+ * copy of the program, on a bundled level; results are reported per turn of a
+ * single agent. Actions are counted by the action handler but not performed,
+ * and a program is interrupted after a fixed number of actions per turn, so
+ * that the world stays the same and every turn does comparable work. Programs
+ * run either in the interpreter or compiled from their first turn.
+ *
+ * A program that cannot be parsed is reported as a failed benchmark.
+ */
+public class InterpreterBenchmarks {
+
+	public static final String LEVEL_NAME = "Blocks";
+
+	public static final int[] NB_AGENTS = { 1, 4 };
+
+	public static final int NB_TURNS = 10;
+
+	public static final int ACTIONS_PER_TURN = 25;
+
+	/**
+	 * An action handler that only counts actions, and only allows a limited
+	 * number of actions per turn
+	 */
+	private static class CountingActionHandler implements IActionHandler {
+
+		private int budget;
+		private long nbActions;
+
+		private boolean count() {
+			nbActions++;
+			return budget-- > 0;
+		}
+
+		public void startTurn() {
+			budget = ACTIONS_PER_TURN;
+		}
+
+		@Override
+		public boolean turn(Worm worm, double angle) {
+			return count();
+		}
+
+		@Override
+		public boolean move(Worm worm) {
+			return count();
+		}
+
+		@Override
+		public boolean jump(Worm worm) {
+			return count();
+		}
+
+		@Override
+		public boolean fire(Worm worm, int propulsion) {
+			return count();
+		}
+
+		@Override
+		public boolean toggleWeapon(Worm worm) {
+			return count();
+		}
+
+		@Override
+		public void print(String message) {
+			nbActions++;
+		}
+	}
+
+	private static enum Tier {
+		INTERPRETED(Integer.MAX_VALUE), COMPILED(0);
+
+		private final int hotLoopThreshold;
+
+		private Tier(int hotLoopThreshold) {
+			this.hotLoopThreshold = hotLoopThreshold;
+		}
+	}
+
+	private static String readProgram(File file) throws IOException {
+		StringBuilder text = new StringBuilder();
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				text.append(line).append('\n');
+			}
+		} finally {
+			reader.close();
+		}
+		return text.toString();
+	}
+
+	/**
+	 * The program files in the programs directory, by name
+	 */
+	public static File[] getProgramFiles() {
+		File[] files = new File("programs").listFiles();
+		if (files == null) {
+			throw new IllegalStateException(
+					"The programs directory cannot be found");
+		}
+		List<File> result = new ArrayList<File>();
+		for (File file : files) {
+			if (file.getName().endsWith(".txt")) {
+				result.add(file);
+			}
+		}
+		File[] sorted = result.toArray(new File[result.size()]);
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	private static Program parse(String text, IActionHandler handler) {
+		Program program = new Program(text, handler);
+		ParseOutcome<?> outcome = program.parse();
+		if (!outcome.isSuccess()) {
+			throw new IllegalStateException("Parse errors: "
+					+ outcome.getResult());
+		}
+		return program;
+	}
+
+	public static List<Benchmark> createBenchmarks() throws IOException {
+		List<Benchmark> result = new ArrayList<Benchmark>();
+		for (File file : getProgramFiles()) {
+			final String text = readProgram(file);
+			final String name = file.getName();
+			result.add(new Benchmark("Program.parse program=" + name) {
+				private final CountingActionHandler handler = new CountingActionHandler();
+
+				@Override
+				public void setUp() {
+					parse(text, handler);
+				}
+
+				@Override
+				public void run(Blackhole blackhole) {
+					blackhole.consume(new Program(text, handler).parse());
+				}
+			});
+			for (final Tier tier : Tier.values()) {
+				for (final int nbAgents : NB_AGENTS) {
+					result.add(new Benchmark("Program.execute program=" + name
+							+ " agents=" + nbAgents + " turns=" + NB_TURNS
+							+ " tier=" + tier.name().toLowerCase()) {
+						private final CountingActionHandler handler = new CountingActionHandler();
+						private final Program[] programs = new Program[nbAgents];
+
+						@Override
+						public void setUp() {
+							World world = BenchmarkWorlds.createWorld(LEVEL_NAME);
+							for (int i = 0; i < nbAgents; i++) {
+								programs[i] = parse(text, handler);
+								programs[i]
+										.setHotLoopThreshold(tier.hotLoopThreshold);
+								new Worm(world, world
+										.getRandomAdjacentPosition(0.5), 2
+										* Math.PI * i / nbAgents, 0.5, "Agent",
+										programs[i]);
+							}
+						}
+
+						@Override
+						public void run(Blackhole blackhole) {
+							for (int turn = 0; turn < NB_TURNS; turn++) {
+								for (Program program : programs) {
+									handler.startTurn();
+									program.execute();
+								}
+							}
+							blackhole.consume(handler.nbActions);
+						}
+
+						@Override
+						public int getOperationsPerRun() {
+							return NB_TURNS * nbAgents;
+						}
+					});
+				}
+			}
+		}
+		return result;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new BenchmarkRunner(args).run(createBenchmarks());
+	}
+
+}
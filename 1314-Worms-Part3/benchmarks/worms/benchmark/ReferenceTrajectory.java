@@ -0,0 +1,105 @@
+package worms.benchmark;
+
+import worms.model.Position;
+import worms.model.Projectile;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * The end of a jump or a projectile flight, computed by stepping through the
+ * ballistic trajectory one time step at a time, exactly as specified by the
+ * model, but independently of its implementation.
+ *
+ * Benchmarks compare the model against these trajectories before they are
+ * timed, so that a faster solver that changes the outcome of a jump is
+ * reported instead of silently measured.
+ */
+public class ReferenceTrajectory {
+
+	private final double time;
+	private final Position end;
+
+	private ReferenceTrajectory(double time, Position end) {
+		this.time = time;
+		this.end = end;
+	}
+
+	/**
+	 * Duration of the jump or flight
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Position at the end of the jump or flight, before falling
+	 */
+	public Position getEnd() {
+		return end;
+	}
+
+	/**
+	 * The reference trajectory of a jump of the given worm
+	 */
+	public static ReferenceTrajectory of(Worm worm, double timeStep) {
+		World world = worm.getWorld();
+		double radius = worm.getRadius();
+		ReferenceTrajectory result = step(world, worm.getPosition(),
+				worm.initialVelocity(), worm.getDirection(), radius, timeStep,
+				false);
+		if (world.isImpassable(result.getEnd(), radius)
+				&& world.isInWorld(result.getEnd(), radius)) {
+			return new ReferenceTrajectory(0, worm.getPosition());
+		}
+		return result;
+	}
+
+	/**
+	 * The reference trajectory of a flight of the given projectile
+	 */
+	public static ReferenceTrajectory of(Projectile projectile, double timeStep) {
+		return step(projectile.getWorld(), projectile.getPosition(),
+				projectile.initialVelocity(), projectile.getDirection(),
+				projectile.getRadius(), timeStep, true);
+	}
+
+	private static ReferenceTrajectory step(World world, Position start,
+			double velocity, double direction, double radius, double timeStep,
+			boolean stopAtWorms) {
+		double vx = velocity * Math.cos(direction);
+		double vy = velocity * Math.sin(direction);
+		for (long i = 1;; i++) {
+			double t = i * timeStep;
+			Position position = new Position(start.getX() + vx * t,
+					start.getY() + vy * t - 0.5 * World.ACCELERATION * t * t);
+			if (world.isImpassable(position, radius)
+					|| (stopAtWorms && world.overlapWithObjectOfType(
+							Worm.class, position, radius))
+					|| (start.getDistanceTo(position) > radius && world
+							.isAdjacent(position, radius))) {
+				return new ReferenceTrajectory(t, position);
+			}
+		}
+	}
+
+	/**
+	 * Checks that the given duration and end position of a jump or flight
+	 * match this reference trajectory, up to one time step and a tenth of
+	 * the radius of the jumping object
+	 *
+	 * @throws IllegalStateException
+	 *             If they do not match
+	 */
+	public void check(String description, double time, Position end,
+			double timeStep, double radius) throws IllegalStateException {
+		if (Math.abs(time - this.time) > timeStep * 1.5
+				|| (this.time != 0 && end.getDistanceTo(this.end) > radius / 10)) {
+			throw new IllegalStateException(description
+					+ " does not match the reference trajectory: t=" + time
+					+ " end=(" + end.getX() + ", " + end.getY()
+					+ "), expected t=" + this.time + " end=("
+					+ this.end.getX() + ", " + this.end.getY() + ")");
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+package worms.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import worms.model.Position;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * Benchmarks of the terrain queries of a world, on every bundled level and
+ * for a range of radii.
+ *
+ * Point queries (isImpassable, isAdjacent, isInWorld) cycle through a fixed
+ * set of random positions, so that they see both passable and impassable
+ * terrain. Searches (getRandomAdjacentPosition, getRandomContourPosition,
+ * getAdjacentorPassablePositionTo) start from the random state of a world
+ * with a fixed seed, or from worms placed on such a world. The contour of
+ * getRandomContourPosition is indexed during set up, and not timed. canMove
+ * asks a single worm over and over, as the game screen does, so that it
+ * measures the search that the world remembers.
+ *
+ * Run from the project directory, e.g.:
+ *
+ * <pre>
+ * java -cp bin worms.benchmark.TerrainBenchmarks -filter "isAdjacent.*Skulls"
+ * </pre>
+ */
+public class TerrainBenchmarks {
+
+	public static final double[] RADII = { 0.25, 0.5, 1.0 };
+
+	private static final int NB_PROBES = 1024;
+
+	private static final int NB_WORMS = 16;
+
+	/**
+	 * A benchmark that queries a world at a fixed set of random positions
+	 */
+	private static abstract class ProbeBenchmark extends Benchmark {
+
+		protected final String levelName;
+		protected final double radius;
+		protected World world;
+		protected Position[] probes;
+		private int next = 0;
+
+		protected ProbeBenchmark(String method, String levelName, double radius) {
+			super(method + " level=" + levelName + " radius=" + radius);
+			this.levelName = levelName;
+			this.radius = radius;
+		}
+
+		@Override
+		public void setUp() {
+			world = BenchmarkWorlds.createWorld(levelName);
+			Random random = new Random(BenchmarkWorlds.SEED);
+			probes = new Position[NB_PROBES];
+			for (int i = 0; i < NB_PROBES; i++) {
+				probes[i] = new Position(world.getWidth() * random.nextDouble(),
+						world.getHeight() * random.nextDouble());
+			}
+		}
+
+		protected Position nextProbe() {
+			Position result = probes[next];
+			next = (next + 1) % NB_PROBES;
+			return result;
+		}
+	}
+
+	public static List<Benchmark> createBenchmarks() {
+		List<Benchmark> result = new ArrayList<Benchmark>();
+		for (final String levelName : BenchmarkWorlds.LEVEL_NAMES) {
+			for (final double radius : RADII) {
+				result.add(new ProbeBenchmark("isImpassable", levelName, radius) {
+					@Override
+					public void run(Blackhole blackhole) {
+						blackhole.consume(world.isImpassable(nextProbe(), radius));
+					}
+				});
+				result.add(new ProbeBenchmark("isAdjacent", levelName, radius) {
+					@Override
+					public void run(Blackhole blackhole) {
+						blackhole.consume(world.isAdjacent(nextProbe(), radius));
+					}
+				});
+				result.add(new ProbeBenchmark("isInWorld", levelName, radius) {
+					@Override
+					public void run(Blackhole blackhole) {
+						blackhole.consume(world.isInWorld(nextProbe(), radius));
+					}
+				});
+				result.add(new ProbeBenchmark("getRandomAdjacentPosition",
+						levelName, radius) {
+					@Override
+					public void run(Blackhole blackhole) {
+						blackhole.consume(world.getRandomAdjacentPosition(radius));
+					}
+				});
+				result.add(new ProbeBenchmark("getRandomContourPosition",
+						levelName, radius) {
+					@Override
+					public void setUp() {
+						super.setUp();
+						world.getRandomContourPosition(radius);
+					}
+
+					@Override
+					public void run(Blackhole blackhole) {
+						blackhole.consume(world.getRandomContourPosition(radius));
+					}
+				});
+				result.add(new Benchmark("getAdjacentorPassablePositionTo level="
+						+ levelName + " radius=" + radius) {
+					private World world;
+					private List<Worm> worms;
+					private int next = 0;
+
+					@Override
+					public void setUp() {
+						world = BenchmarkWorlds.createWorld(levelName);
+						worms = new ArrayList<Worm>();
+						for (int i = 0; i < NB_WORMS; i++) {
+							Position position = world
+									.getRandomAdjacentPosition(radius);
+							if (position != null) {
+								worms.add(new Worm(world, position, 2 * Math.PI
+										* i / NB_WORMS, radius, "Benchmark", null));
+							}
+						}
+						if (worms.isEmpty()) {
+							throw new IllegalStateException(
+									"No adjacent positions for radius " + radius);
+						}
+					}
+
+					@Override
+					public void run(Blackhole blackhole) {
+						Worm worm = worms.get(next);
+						next = (next + 1) % worms.size();
+						blackhole.consume(world.getAdjacentorPassablePositionTo(
+								worm, radius));
+					}
+				});
+			}
+		}
+		for (final String levelName : BenchmarkWorlds.LEVEL_NAMES) {
+			result.add(new Benchmark("Worm.canMove level=" + levelName) {
+				private Worm worm;
+
+				@Override
+				public void setUp() {
+					World world = BenchmarkWorlds.createWorld(levelName);
+					worm = new Worm(world, world.getRandomAdjacentPosition(0.5),
+							0, 0.5, "Benchmark", null);
+				}
+
+				@Override
+				public void run(Blackhole blackhole) {
+					blackhole.consume(worm.canMove());
+				}
+			});
+		}
+		return result;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new BenchmarkRunner(args).run(createBenchmarks());
+	}
+
+}
@@ -0,0 +1,249 @@
+package worms.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import worms.gui.GUIConstants;
+import worms.model.Position;
+import worms.model.Projectile;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.projectiles.BazookaProjectile;
+import worms.model.projectiles.RifleProjectile;
+
+/**
+ * Benchmarks of jumps of worms and flights of projectiles, with the time step
+ * of the game, on every bundled level.
+ *
+ * Worm jumps are parameterized over the direction and the fraction of action
+ * points of the worm; projectile flights over the direction and, for the
+ * bazooka, the yield. Before a benchmark is timed, the outcome of the model
+ * is checked against a {@link ReferenceTrajectory}, and the benchmark fails
+ * if they differ.
+ *
+ * Benchmarks of jump and flight restore the jumping worm before every
+ * operation (position, action points and hit points), and flights create a
+ * new projectile; this is included in the measured time. A worm that has been
+ * terminated is replaced by a new one.
+ *
+ * The start position of the worm is the first random adjacent position of the
+ * level from which a trial jump, with the direction and action points of the
+ * benchmark, keeps the worm in the world. The random generator of the world
+ * has a fixed seed, so every run uses the same start positions.
+ */
+public class TrajectoryBenchmarks {
+
+	public static final double TIME_STEP = GUIConstants.JUMP_TIME_STEP;
+
+	public static final double[] DIRECTIONS = { Math.PI / 4, 3 * Math.PI / 8,
+			3 * Math.PI / 4 };
+
+	public static final double[] ACTION_POINT_FRACTIONS = { 1.0, 0.5 };
+
+	public static final int[] YIELDS = { 20, 60, 100 };
+
+	private static final double WORM_RADIUS = 0.5;
+
+	private static final int RIFLE = -1;
+
+	/**
+	 * The number of random adjacent positions tried before a benchmark fails
+	 */
+	private static final int MAX_START_ATTEMPTS = 1000;
+
+	/**
+	 * A benchmark on a single worm, placed at a random adjacent position of a
+	 * level from which it can jump without leaving the world
+	 */
+	private static abstract class WormBenchmark extends Benchmark {
+
+		private final String levelName;
+		private final double direction;
+		private final double actionPointFraction;
+
+		protected World world;
+		protected Worm worm;
+		protected Position start;
+		protected int actionPoints;
+
+		protected WormBenchmark(String name, String levelName,
+				double direction, double actionPointFraction) {
+			super(name);
+			this.levelName = levelName;
+			this.direction = direction;
+			this.actionPointFraction = actionPointFraction;
+		}
+
+		@Override
+		public void setUp() {
+			world = BenchmarkWorlds.createWorld(levelName);
+			for (int attempt = 0; attempt < MAX_START_ATTEMPTS; attempt++) {
+				start = world.getRandomAdjacentPosition(WORM_RADIUS);
+				if (start == null) {
+					break;
+				}
+				worm = createWorm();
+				actionPoints = (int) Math.round(actionPointFraction
+						* worm.getMaxPoints());
+				if (trialJump()) {
+					restore();
+					return;
+				}
+			}
+			throw new IllegalStateException("No adjacent position on "
+					+ levelName + " from which the worm can jump");
+		}
+
+		/**
+		 * Jumps once from the start position, and returns whether the worm
+		 * could jump and is still in the world afterwards
+		 */
+		private boolean trialJump() {
+			restore();
+			if (!worm.canJump(TIME_STEP)) {
+				worm.terminate();
+				return false;
+			}
+			worm.jump(TIME_STEP);
+			return worm.isAlive();
+		}
+
+		private Worm createWorm() {
+			return new Worm(world, start, direction, WORM_RADIUS, "Benchmark",
+					null);
+		}
+
+		/**
+		 * Restores the worm to its state at the start of the benchmark, or
+		 * replaces it by a new worm if it has been terminated
+		 */
+		protected void restore() {
+			if (!worm.isAlive()) {
+				worm = createWorm();
+			}
+			worm.setPosition(start);
+			worm.setHitPoints(worm.getMaxPoints());
+			worm.setActionPoints(actionPoints);
+		}
+
+		protected void checkJump() {
+			double time = worm.jumpTime(TIME_STEP);
+			ReferenceTrajectory.of(worm, TIME_STEP).check(getName(), time,
+					worm.jumpStep(time), TIME_STEP, worm.getRadius());
+		}
+
+		protected Projectile createProjectile(int yield) {
+			if (yield == RIFLE) {
+				return new RifleProjectile(worm, 0);
+			}
+			return new BazookaProjectile(worm, yield);
+		}
+
+		protected void checkFlight(Projectile projectile) {
+			double time = projectile.jumpTime(TIME_STEP);
+			ReferenceTrajectory.of(projectile, TIME_STEP).check(getName(),
+					time, projectile.jumpStep(time), TIME_STEP,
+					projectile.getRadius());
+		}
+	}
+
+	private static String format(String method, String levelName,
+			double direction, String parameter) {
+		return String.format("%s level=%s direction=%.3f %s", method,
+				levelName, direction, parameter);
+	}
+
+	private static void addWormBenchmarks(List<Benchmark> result,
+			String levelName, double direction) {
+		for (double fraction : ACTION_POINT_FRACTIONS) {
+			String parameter = "ap=" + Math.round(100 * fraction) + "%";
+			result.add(new WormBenchmark(format("Worm.jumpTime", levelName,
+					direction, parameter), levelName, direction, fraction) {
+				@Override
+				public void setUp() {
+					super.setUp();
+					checkJump();
+				}
+
+				@Override
+				public void run(Blackhole blackhole) {
+					blackhole.consume(worm.jumpTime(TIME_STEP));
+				}
+			});
+			result.add(new WormBenchmark(format("Worm.jump", levelName,
+					direction, parameter), levelName, direction, fraction) {
+				@Override
+				public void setUp() {
+					super.setUp();
+					checkJump();
+				}
+
+				@Override
+				public void run(Blackhole blackhole) {
+					restore();
+					worm.jump(TIME_STEP);
+					blackhole.consume(worm.getPosition());
+				}
+			});
+		}
+	}
+
+	private static void addProjectileBenchmarks(List<Benchmark> result,
+			String levelName, double direction, final int yield) {
+		String parameter = (yield == RIFLE) ? "rifle" : "bazooka yield="
+				+ yield;
+		result.add(new WormBenchmark(format("Projectile.jumpTime", levelName,
+				direction, parameter), levelName, direction, 1.0) {
+			private Projectile projectile;
+
+			@Override
+			public void setUp() {
+				super.setUp();
+				projectile = createProjectile(yield);
+				checkFlight(projectile);
+			}
+
+			@Override
+			public void run(Blackhole blackhole) {
+				blackhole.consume(projectile.jumpTime(TIME_STEP));
+			}
+		});
+		result.add(new WormBenchmark(format("Projectile.flight", levelName,
+				direction, parameter), levelName, direction, 1.0) {
+			@Override
+			public void setUp() {
+				super.setUp();
+				Projectile projectile = createProjectile(yield);
+				checkFlight(projectile);
+				projectile.terminate();
+			}
+
+			@Override
+			public void run(Blackhole blackhole) {
+				restore();
+				Projectile projectile = createProjectile(yield);
+				projectile.jump(TIME_STEP);
+				blackhole.consume(projectile.getPosition());
+			}
+		});
+	}
+
+	public static List<Benchmark> createBenchmarks() {
+		List<Benchmark> result = new ArrayList<Benchmark>();
+		for (String levelName : BenchmarkWorlds.LEVEL_NAMES) {
+			for (double direction : DIRECTIONS) {
+				addWormBenchmarks(result, levelName, direction);
+				for (int yield : YIELDS) {
+					addProjectileBenchmarks(result, levelName, direction, yield);
+				}
+				addProjectileBenchmarks(result, levelName, direction, RIFLE);
+			}
+		}
+		return result;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new BenchmarkRunner(args).run(createBenchmarks());
+	}
+
+}
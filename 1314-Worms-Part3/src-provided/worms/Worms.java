@@ -1,13 +1,24 @@
 package worms;
 
+import worms.gui.FastForwardPolicy;
 import worms.gui.GUIOptions;
 import worms.gui.WormsGUI;
+import worms.gui.game.HeadlessGame;
 import worms.model.Facade;
 
 public class Worms {
 
-	public static void main(String[] args) {
-		new WormsGUI(new Facade(), parseOptions(args)).start();
+	public static void main(String[] args) throws Exception {
+		GUIOptions options = parseOptions(args);
+		if (options.exportDirectory != null) {
+			HeadlessGame game = new HeadlessGame(new Facade(), options);
+			int nbFrames = game.run();
+			System.out.println("Recorded " + nbFrames + " frames to "
+					+ options.exportDirectory);
+			System.out.print(game.getMetrics());
+		} else {
+			new WormsGUI(new Facade(), options).start();
+		}
 	}
 
 	private static GUIOptions parseOptions(String[] args) {
@@ -25,6 +36,20 @@ public class Worms {
 			} else if ("-program".equals(arg)) {
 				String program = args[++i];
 				options.programFile = program;
+			} else if ("-fastforward".equals(arg)) {
+				options.fastForwardPolicy = FastForwardPolicy.fromName(args[++i]);
+			} else if ("-framerate".equals(arg)) {
+				options.framerate = Double.parseDouble(args[++i]);
+			} else if ("-export".equals(arg)) {
+				options.exportDirectory = args[++i];
+			} else if ("-level".equals(arg)) {
+				options.exportLevel = args[++i];
+			} else if ("-worms".equals(arg)) {
+				options.exportNbWorms = Integer.parseInt(args[++i]);
+			} else if ("-food".equals(arg)) {
+				options.exportNbFood = Integer.parseInt(args[++i]);
+			} else if ("-maxframes".equals(arg)) {
+				options.exportMaxFrames = Integer.parseInt(args[++i]);
 			}
 		}
 
@@ -0,0 +1,213 @@
+package worms.gui;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import worms.gui.game.commands.Command;
+
+/**
+ * Executes commands one after the other on a single scheduler thread.
+ *
+ * Commands are submitted without blocking, and their completion is reported
+ * through a future. Submitted commands are queued, so several commands can be
+ * pipelined. Commands are updated in fixed time steps, from the simulation
+ * time that is handed to the scheduler by the game loop; time that arrives
+ * while a command is being executed is accumulated, so that no ticks are lost.
+ *
+ * Commands that are issued while executing another command (e.g., the actions
+ * of a program whose turn starts at the end of a command) are executed
+ * immediately on the scheduler thread.
+ */
+public class CommandScheduler {
+
+	/**
+	 * Simulation time (in seconds) by which a command is updated in a single
+	 * step, before applying the fast-forward policy
+	 */
+	public static final double TIME_STEP = GUIConstants.TIME_SCALE
+			/ GUIConstants.SIMULATION_RATE;
+
+	private final Object timeLock = new Object();
+
+	private double availableTime = 0;
+	private int nbActiveCommands = 0;
+
+	private volatile Thread schedulerThread;
+
+	private final Runnable stepListener;
+
+	public CommandScheduler() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new command scheduler that runs the given listener on the
+	 * scheduler thread after each step of a command.
+	 */
+	public CommandScheduler(Runnable stepListener) {
+		this.stepListener = stepListener;
+	}
+
+	private final ExecutorService executor = Executors
+			.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Command scheduler");
+					thread.setDaemon(true);
+					schedulerThread = thread;
+					return thread;
+				}
+			});
+
+	/**
+	 * Queues the given command for execution.
+	 *
+	 * The resulting future completes with true if the command has been
+	 * executed successfully, or with false if it has been cancelled.
+	 */
+	public CompletableFuture<Boolean> submit(Command cmd) {
+		return submit(cmd, FastForwardPolicy.REAL_TIME);
+	}
+
+	/**
+	 * Queues the given command for execution at the speed determined by the
+	 * given policy.
+	 */
+	public CompletableFuture<Boolean> submit(final Command cmd,
+			final FastForwardPolicy policy) {
+		final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					result.complete(execute(cmd, policy));
+				} catch (RuntimeException e) {
+					result.completeExceptionally(e);
+					reportUncaught(e);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Executes the given command, and returns whether it has been executed
+	 * successfully.
+	 *
+	 * When called from the scheduler thread, the command is executed right
+	 * away; otherwise, it is queued and this method waits for its completion.
+	 */
+	public boolean executeImmediately(Command cmd) {
+		return executeImmediately(cmd, FastForwardPolicy.REAL_TIME);
+	}
+
+	/**
+	 * Executes the given command at the speed determined by the given policy,
+	 * and returns whether it has been executed successfully.
+	 */
+	public boolean executeImmediately(Command cmd, FastForwardPolicy policy) {
+		if (isSchedulerThread()) {
+			return execute(cmd, policy);
+		}
+		try {
+			return submit(cmd, policy).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	public boolean isSchedulerThread() {
+		return Thread.currentThread() == schedulerThread;
+	}
+
+	/**
+	 * Hands the given amount of simulation time (in seconds) to the commands
+	 * that are being executed. Time is only accumulated while a command is
+	 * being executed.
+	 */
+	public void advance(double dt) {
+		synchronized (timeLock) {
+			if (nbActiveCommands > 0) {
+				availableTime += dt;
+				timeLock.notifyAll();
+			}
+		}
+	}
+
+	private boolean execute(Command cmd, FastForwardPolicy policy) {
+		synchronized (timeLock) {
+			nbActiveCommands++;
+		}
+		try {
+			cmd.startExecution();
+			afterStep();
+			if (policy.isInstant()) {
+				cmd.finish();
+				afterStep();
+				cmd.getScreen().repaint();
+			}
+			while (!cmd.isTerminated()) {
+				takeTimeStep();
+				cmd.update(TIME_STEP * policy.getTimeFactor());
+				afterStep();
+				cmd.getScreen().repaint();
+			}
+			return cmd.isExecutionCompleted();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			synchronized (timeLock) {
+				nbActiveCommands--;
+				if (nbActiveCommands == 0) {
+					availableTime = 0;
+				}
+			}
+		}
+	}
+
+	private void afterStep() {
+		if (stepListener != null) {
+			stepListener.run();
+		}
+	}
+
+	/**
+	 * Waits until a time step of simulation time is available, and takes it.
+	 * The rest of the available time is left for the next steps.
+	 */
+	private void takeTimeStep() throws InterruptedException {
+		synchronized (timeLock) {
+			while (availableTime < TIME_STEP - TIME_STEP_TOLERANCE) {
+				timeLock.wait();
+			}
+			availableTime = Math.max(0, availableTime - TIME_STEP);
+		}
+	}
+
+	/**
+	 * Rounding error allowed when adding up the time handed by the game loop
+	 */
+	private static final double TIME_STEP_TOLERANCE = 1e-9;
+
+	private void reportUncaught(RuntimeException e) {
+		Thread.UncaughtExceptionHandler handler = Thread
+				.getDefaultUncaughtExceptionHandler();
+		if (handler != null) {
+			handler.uncaughtException(Thread.currentThread(), e);
+		} else {
+			e.printStackTrace();
+		}
+	}
+
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,66 @@
+package worms.gui;
+
+/**
+ * Determines how fast the commands of computer-controlled worms are played.
+ */
+public enum FastForwardPolicy {
+
+	/**
+	 * Commands are animated in real time
+	 */
+	REAL_TIME("realtime", 1),
+
+	/**
+	 * Commands are animated ten times faster than real time
+	 */
+	TEN_TIMES("10x", 10),
+
+	/**
+	 * Commands complete their effect immediately, without animation
+	 */
+	INSTANT("instant", Double.POSITIVE_INFINITY);
+
+	private final String name;
+	private final double timeFactor;
+
+	private FastForwardPolicy(String name, double timeFactor) {
+		this.name = name;
+		this.timeFactor = timeFactor;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Simulation time that elapses for a command, per unit of game time
+	 */
+	public double getTimeFactor() {
+		return timeFactor;
+	}
+
+	public boolean isInstant() {
+		return Double.isInfinite(timeFactor);
+	}
+
+	/**
+	 * Time to wait after each command of a computer-controlled worm (in real
+	 * milliseconds)
+	 */
+	public long getPauseAfterCommand() {
+		return (long) (1000 * GUIConstants.PROGRAM_COMMAND_PAUSE / timeFactor);
+	}
+
+	/**
+	 * Returns the policy with the given name ("realtime", "10x" or "instant")
+	 */
+	public static FastForwardPolicy fromName(String name) {
+		for (FastForwardPolicy policy : values()) {
+			if (policy.getName().equalsIgnoreCase(name)) {
+				return policy;
+			}
+		}
+		throw new IllegalArgumentException("Unknown fast-forward policy: "
+				+ name);
+	}
+}
@@ -17,6 +17,12 @@ public final class GUIConstants {
 	 */
 	public static final int FRAMERATE = 15; // fps
 
+	/**
+	 * Rate at which the simulation is advanced, in fixed steps per (real)
+	 * second
+	 */
+	public static final int SIMULATION_RATE = 60; // steps per second
+
 	/**
 	 * Time (in worm-seconds) that elapses in 1 real second
 	 */
@@ -53,6 +59,12 @@ public final class GUIConstants {
 	 */
 	public static final double JUMP_TIME_STEP = 1e-4;
 
+	/**
+	 * Time to wait after each command of a computer-controlled worm, when
+	 * playing in real time (in real seconds)
+	 */
+	public static final double PROGRAM_COMMAND_PAUSE = 0.5;
+
 	/* disable instantiations */
 	private GUIConstants() {
 	}
@@ -33,4 +33,57 @@ public class GUIOptions {
 	 * Can also be set from the command line with the -program argument
 	 */
 	public String programFile = "programs/program.txt";
+
+	/**
+	 * How fast the commands of computer-controlled worms are played:
+	 * in real time, ten times faster, or instantly.
+	 * Default: FastForwardPolicy.REAL_TIME
+	 * 
+	 * Can also be set from the command line with the -fastforward argument
+	 * (realtime, 10x or instant)
+	 */
+	public FastForwardPolicy fastForwardPolicy = FastForwardPolicy.REAL_TIME;
+
+	/**
+	 * Rate at which the screen is redrawn, in frames per second.
+	 * The simulation runs at its own, fixed rate.
+	 * Default: GUIConstants.FRAMERATE
+	 * 
+	 * Can also be set from the command line with the -framerate argument
+	 */
+	public double framerate = GUIConstants.FRAMERATE;
+
+	/**
+	 * Directory to which a game between computer-controlled worms is
+	 * recorded as PNG frames, without opening a window.
+	 * Default: null (play interactively)
+	 * 
+	 * Can also be set from the command line with the -export argument
+	 */
+	public String exportDirectory = null;
+
+	/**
+	 * Name of the level of a recorded game.
+	 * Default: null (the first available level)
+	 * 
+	 * Can also be set from the command line with the -level argument
+	 */
+	public String exportLevel = null;
+
+	/**
+	 * Number of computer-controlled worms and food rations in a recorded game
+	 * Default: 4 worms, 2 food rations
+	 * 
+	 * Can also be set from the command line with the -worms and -food arguments
+	 */
+	public int exportNbWorms = 4;
+	public int exportNbFood = 2;
+
+	/**
+	 * Maximal number of frames of a recorded game
+	 * Default: 9000
+	 * 
+	 * Can also be set from the command line with the -maxframes argument
+	 */
+	public int exportMaxFrames = 9000;
 }
\ No newline at end of file
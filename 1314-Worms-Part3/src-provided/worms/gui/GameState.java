@@ -2,13 +2,12 @@ package worms.gui;
 
 import java.util.Collection;
 import java.util.Random;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 
 import worms.gui.game.commands.Command;
 import worms.model.IFacade;
 import worms.model.World;
+import worms.model.WorldSnapshot;
 import worms.model.Worm;
 
 public class GameState {
@@ -16,23 +15,60 @@ public class GameState {
 	private final Random random;
 	private final IFacade facade;
 
-	private final BlockingQueue<Double> timeDelta = new LinkedBlockingQueue<Double>(
-			1);
+	private final CommandScheduler scheduler = new CommandScheduler(
+			new Runnable() {
+				@Override
+				public void run() {
+					publishSnapshot();
+				}
+			});
 
 	private World world;
 
+	private final Metrics metrics;
+
 	private final Level level;
 
 	public GameState(IFacade facade, long randomSeed, Level level) {
+		this(facade, randomSeed, level, new Metrics());
+	}
+
+	public GameState(IFacade facade, long randomSeed, Level level,
+			Metrics metrics) {
 		this.random = new Random(randomSeed);
 		this.facade = facade;
 		this.level = level;
+		this.metrics = metrics;
 	}
 
 	public synchronized void createWorld() {
 		level.load();
 		world = facade.createWorld(level.getWorldWidth(),
 				level.getWorldHeight(), level.getPassableMap(), random);
+		world.publishSnapshot();
+	}
+
+	/**
+	 * Publishes a snapshot of the current state of the world. Should only be
+	 * called from the thread that modifies the world.
+	 */
+	public void publishSnapshot() {
+		World world = getWorld();
+		if (world != null) {
+			world.publishSnapshot();
+		}
+	}
+
+	/**
+	 * Returns the most recently published snapshot of the world, which can be
+	 * read from any thread.
+	 */
+	public WorldSnapshot getSnapshot() {
+		World world = getWorld();
+		if (world == null) {
+			return null;
+		}
+		return world.getSnapshot();
 	}
 
 	public IFacade getFacade() {
@@ -44,28 +80,26 @@ public class GameState {
 	}
 
 	public void evolve(double dt) {
-		timeDelta.clear(); // nobody was waiting for the previous tick, so
-		// clear it
-		timeDelta.offer(dt);
+		scheduler.advance(dt);
+	}
+
+	/**
+	 * Queues the given command for execution, without waiting for it.
+	 */
+	public CompletableFuture<Boolean> submit(Command cmd) {
+		return scheduler.submit(cmd);
 	}
 
 	public boolean executeImmediately(Command cmd) {
-		cmd.startExecution();
-		while (!cmd.isTerminated()) {
-			try {
-				Double dt = timeDelta.poll(1000 / GUIConstants.FRAMERATE,
-						TimeUnit.MILLISECONDS); // blocks, but allows repainting
-												// if necessary
-				if (dt != null) {
-					cmd.update(dt);
-				}
-				cmd.getScreen().repaint(); // repaint while executing command
-											// (which might block GUI thread)
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-		}
-		return cmd.isExecutionCompleted();
+		return scheduler.executeImmediately(cmd);
+	}
+
+	public boolean executeImmediately(Command cmd, FastForwardPolicy policy) {
+		return scheduler.executeImmediately(cmd, policy);
+	}
+
+	public CommandScheduler getScheduler() {
+		return scheduler;
 	}
 
 	public Level getLevel() {
@@ -80,4 +114,11 @@ public class GameState {
 		return random;
 	}
 
+	/**
+	 * Timings of this game
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
 }
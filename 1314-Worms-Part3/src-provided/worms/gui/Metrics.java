@@ -0,0 +1,104 @@
+package worms.gui;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import worms.util.LatencyHistogram;
+
+/**
+ * Timings of the parts of a game that determine how long a frame or a
+ * simulation step takes, each kept in a rolling histogram.
+ *
+ * Timings are recorded by the game itself; they can be shown on screen, or
+ * read through {@link #getHistograms()} (e.g., after a headless game).
+ */
+public class Metrics {
+
+	/**
+	 * Duration of the window over which statistics are kept
+	 */
+	public static final long WINDOW_NANOS = 5000000000L;
+
+	private final LatencyHistogram screenUpdate = new LatencyHistogram(
+			WINDOW_NANOS);
+	private final LatencyHistogram paint = new LatencyHistogram(WINDOW_NANOS);
+	private final LatencyHistogram commandUpdate = new LatencyHistogram(
+			WINDOW_NANOS);
+	private final LatencyHistogram programExecution = new LatencyHistogram(
+			WINDOW_NANOS);
+
+	private final Map<String, LatencyHistogram> histograms;
+
+	public Metrics() {
+		Map<String, LatencyHistogram> histograms = new LinkedHashMap<String, LatencyHistogram>();
+		histograms.put("screen update", screenUpdate);
+		histograms.put("paint", paint);
+		histograms.put("command update", commandUpdate);
+		histograms.put("program", programExecution);
+		this.histograms = Collections.unmodifiableMap(histograms);
+	}
+
+	/**
+	 * Time taken to bring the sprites up to date with the world
+	 */
+	public LatencyHistogram getScreenUpdate() {
+		return screenUpdate;
+	}
+
+	/**
+	 * Time taken to paint a frame
+	 */
+	public LatencyHistogram getPaint() {
+		return paint;
+	}
+
+	/**
+	 * Time taken by a single update of a command
+	 */
+	public LatencyHistogram getCommandUpdate() {
+		return commandUpdate;
+	}
+
+	/**
+	 * Time taken by a turn of a program, including the commands it executes
+	 */
+	public LatencyHistogram getProgramExecution() {
+		return programExecution;
+	}
+
+	/**
+	 * All histograms, by name
+	 */
+	public Map<String, LatencyHistogram> getHistograms() {
+		return histograms;
+	}
+
+	public void reset() {
+		for (LatencyHistogram histogram : histograms.values()) {
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * Summarizes the histogram with the given name on a single line, with
+	 * durations in milliseconds
+	 */
+	public String format(String name) {
+		LatencyHistogram histogram = histograms.get(name);
+		return String.format("%-15s n=%-6d p50=%7.2f p99=%7.2f max=%7.2f ms",
+				name, histogram.getCount(),
+				histogram.getPercentile(50) / 1e6,
+				histogram.getPercentile(99) / 1e6, histogram.getMax() / 1e6);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		for (String name : histograms.keySet()) {
+			result.append(format(name)).append('\n');
+		}
+		return result.toString();
+	}
+
+}
@@ -52,13 +52,7 @@ public abstract class Screen {
 				graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
 						RenderingHints.VALUE_ANTIALIAS_ON);
 
-				Screen.this.paintScreen(graphics);
-
-				Screen.this.paintMessage(graphics);
-
-				InputMode<? extends Screen> inputMode = getCurrentInputMode();
-				if (inputMode != null)
-					inputMode.paintOverlay(graphics);
+				paintTo(graphics);
 			}
 		};
 		result.setBackground(Color.BLACK);
@@ -91,6 +85,21 @@ public abstract class Screen {
 		}
 	}
 
+	/**
+	 * Paints the screen, its message and the overlay of the current input
+	 * mode to the given graphics object, which need not belong to the
+	 * contents of this screen (e.g., when rendering offscreen)
+	 */
+	public void paintTo(Graphics2D graphics) {
+		paintScreen(graphics);
+
+		paintMessage(graphics);
+
+		InputMode<? extends Screen> inputMode = getCurrentInputMode();
+		if (inputMode != null)
+			inputMode.paintOverlay(graphics);
+	}
+
 	protected void paintScreen(Graphics2D g) {
 	}
 
@@ -118,6 +118,11 @@ public class WormsGUI {
 		if (message == null) {
 			message = "(Unknown error)";
 		}
+		if (screenPanel == null) {
+			// no window, e.g., when rendering offscreen
+			System.err.println(message);
+			return;
+		}
 		ErrorScreen errorScreen = new ErrorScreen(this, message);
 		switchToScreen(errorScreen);
 	}
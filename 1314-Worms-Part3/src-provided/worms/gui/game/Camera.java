@@ -0,0 +1,168 @@
+package worms.gui.game;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Determines which part of the world is shown on the screen.
+ *
+ * Sprites and markers are positioned in layout coordinates: the screen
+ * coordinates in which the whole world fits the screen. The camera maps
+ * layout coordinates to the actual screen coordinates, by zooming in around
+ * its center.
+ *
+ * The zoom factor is restricted to a discrete number of levels, so that
+ * rendered terrain can be cached per level.
+ */
+public class Camera {
+
+	/**
+	 * Factor by which the zoom changes between consecutive levels
+	 */
+	public static final double ZOOM_STEP = 1.25;
+
+	public static final int MAX_ZOOM_LEVEL = 12;
+
+	private final PlayGameScreen screen;
+
+	private int zoomLevel = 0;
+
+	// center of the view, in layout coordinates
+	private double centerX;
+	private double centerY;
+
+	public Camera(PlayGameScreen screen) {
+		this.screen = screen;
+	}
+
+	public synchronized int getZoomLevel() {
+		return zoomLevel;
+	}
+
+	/**
+	 * Number of screen pixels per layout pixel
+	 */
+	public synchronized double getZoom() {
+		return getZoom(zoomLevel);
+	}
+
+	private static double getZoom(int level) {
+		return Math.pow(ZOOM_STEP, level);
+	}
+
+	/**
+	 * Changes the zoom level, keeping the layout point under the given screen
+	 * location in place
+	 */
+	public synchronized void setZoomLevel(int level, double screenX,
+			double screenY) {
+		level = Math.max(0, Math.min(level, MAX_ZOOM_LEVEL));
+		double layoutX = toLayoutX(screenX);
+		double layoutY = toLayoutY(screenY);
+		this.zoomLevel = level;
+		double zoom = getZoom();
+		this.centerX = layoutX - (screenX - getScreenWidth() / 2.0) / zoom;
+		this.centerY = layoutY - (screenY - getScreenHeight() / 2.0) / zoom;
+		clampCenter();
+	}
+
+	public void zoomIn(double screenX, double screenY) {
+		setZoomLevel(getZoomLevel() + 1, screenX, screenY);
+	}
+
+	public void zoomOut(double screenX, double screenY) {
+		setZoomLevel(getZoomLevel() - 1, screenX, screenY);
+	}
+
+	/**
+	 * Moves the view over the given distance (in screen pixels)
+	 */
+	public synchronized void pan(double dx, double dy) {
+		double zoom = getZoom();
+		this.centerX += dx / zoom;
+		this.centerY += dy / zoom;
+		clampCenter();
+	}
+
+	public synchronized void reset() {
+		this.zoomLevel = 0;
+		clampCenter();
+	}
+
+	/**
+	 * Keeps the view within the displayed world, and keeps the world centered
+	 * along directions in which it is smaller than the screen
+	 */
+	private void clampCenter() {
+		double zoom = getZoom();
+		double left = screen.getScreenX(0);
+		double top = screen.getScreenY(screen.getLevel().getWorldHeight());
+		centerX = clamp(centerX, left, screen.getWorldDisplayWidth(),
+				getScreenWidth(), zoom);
+		centerY = clamp(centerY, top, screen.getWorldDisplayHeight(),
+				getScreenHeight(), zoom);
+	}
+
+	private static double clamp(double center, double start, double size,
+			double screenSize, double zoom) {
+		double halfView = screenSize / (2 * zoom);
+		if (size <= 2 * halfView) {
+			return screenSize / 2.0;
+		}
+		return Math.max(start + halfView,
+				Math.min(center, start + size - halfView));
+	}
+
+	private int getScreenWidth() {
+		return screen.getScreenWidth();
+	}
+
+	private int getScreenHeight() {
+		return screen.getScreenHeight();
+	}
+
+	public synchronized double toScreenX(double layoutX) {
+		return (layoutX - getCenterX()) * getZoom() + getScreenWidth() / 2.0;
+	}
+
+	public synchronized double toScreenY(double layoutY) {
+		return (layoutY - getCenterY()) * getZoom() + getScreenHeight() / 2.0;
+	}
+
+	public synchronized double toLayoutX(double screenX) {
+		return (screenX - getScreenWidth() / 2.0) / getZoom() + getCenterX();
+	}
+
+	public synchronized double toLayoutY(double screenY) {
+		return (screenY - getScreenHeight() / 2.0) / getZoom() + getCenterY();
+	}
+
+	private double getCenterX() {
+		return zoomLevel == 0 ? getScreenWidth() / 2.0 : centerX;
+	}
+
+	private double getCenterY() {
+		return zoomLevel == 0 ? getScreenHeight() / 2.0 : centerY;
+	}
+
+	/**
+	 * Transformation from layout coordinates to screen coordinates
+	 */
+	public synchronized AffineTransform getTransform() {
+		AffineTransform result = AffineTransform.getTranslateInstance(
+				getScreenWidth() / 2.0, getScreenHeight() / 2.0);
+		result.scale(getZoom(), getZoom());
+		result.translate(-getCenterX(), -getCenterY());
+		return result;
+	}
+
+	/**
+	 * The part of the layout that is visible on the screen
+	 */
+	public synchronized Rectangle2D getVisibleArea() {
+		double zoom = getZoom();
+		return new Rectangle2D.Double(toLayoutX(0), toLayoutY(0),
+				getScreenWidth() / zoom, getScreenHeight() / zoom);
+	}
+
+}
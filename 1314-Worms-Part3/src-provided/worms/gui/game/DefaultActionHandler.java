@@ -1,8 +1,10 @@
 package worms.gui.game;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import worms.gui.FastForwardPolicy;
 import worms.gui.GameState;
 import worms.gui.game.commands.AddNewFood;
 import worms.gui.game.commands.AddNewTeam;
@@ -25,9 +27,6 @@ class DefaultActionHandler implements IActionHandler {
 	private final PlayGameScreen screen;
 	private final boolean userInitiated;
 
-	private final ExecutorService executor = Executors
-			.newSingleThreadExecutor();
-
 	public DefaultActionHandler(PlayGameScreen screen, boolean userInitiated) {
 		this.screen = screen;
 		this.userInitiated = userInitiated;
@@ -66,26 +65,44 @@ class DefaultActionHandler implements IActionHandler {
 				getScreen()));
 	}
 
-	private boolean executeCommand(final Command cmd) {
+	private boolean executeCommand(Command cmd) {
 		if (userInitiated) {
-			executor.execute(new Runnable() {
-
-				@Override
-				public void run() {
-					getGameState().executeImmediately(cmd);
-				}
-			});
+			getGameState().submit(cmd);
 			return true;
 		} else {
-			boolean result = getGameState().executeImmediately(cmd);
-			try {
-				Thread.sleep(500);
-			} catch (InterruptedException e) {
+			FastForwardPolicy policy = getScreen().getFastForwardPolicy();
+			boolean result = getGameState().executeImmediately(cmd, policy);
+			long pause = policy.getPauseAfterCommand();
+			if (pause > 0) {
+				pause(pause);
 			}
 			return result;
 		}
 	}
 
+	/**
+	 * Waits for the given number of milliseconds on a scheduled delay. If the
+	 * waiting thread is interrupted, the interrupt is kept, so that the
+	 * scheduler stops executing the commands of the program.
+	 */
+	private static void pause(long millis) {
+		try {
+			CompletableFuture.runAsync(NO_ACTION,
+					CompletableFuture.delayedExecutor(millis,
+							TimeUnit.MILLISECONDS)).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static final Runnable NO_ACTION = new Runnable() {
+		@Override
+		public void run() {
+		}
+	};
+
 	@Override
 	public boolean toggleWeapon(Worm worm) {
 		return executeCommand(new SelectNextWeapon(getFacade(), worm,
@@ -0,0 +1,209 @@
+package worms.gui.game;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import worms.gui.GUIConstants;
+
+/**
+ * Drives the simulation with a fixed time step, independently of rendering.
+ *
+ * The simulation clock runs on its own scheduler: real time is accumulated,
+ * and the game state is evolved in fixed steps while enough time is
+ * available. The time that remains in the accumulator determines how far
+ * rendering is between the previous and the current simulation step.
+ *
+ * Rendering runs on a separate scheduler at its own rate.
+ */
+public class GameLoop {
+
+	/**
+	 * Maximal number of simulation steps per tick of the simulation clock;
+	 * time beyond that is dropped, to avoid falling further and further behind
+	 * when the simulation cannot keep up.
+	 */
+	private static final int MAX_STEPS_PER_TICK = 5;
+
+	private final PlayGameScreen screen;
+	private final double simulationStep;
+	private final double frameRate;
+
+	private ScheduledExecutorService simulationScheduler;
+	private ScheduledExecutorService renderScheduler;
+
+	private long lastTickTime;
+	private double accumulator;
+	private volatile double alpha = 1;
+
+	private final AtomicLong nbSimulationSteps = new AtomicLong();
+	private final AtomicLong nbFrames = new AtomicLong();
+
+	private final Object rateLock = new Object();
+	private long rateSampleTime;
+	private long rateSampleSteps;
+	private long rateSampleFrames;
+	private double simulationRate;
+	private double measuredFrameRate;
+
+	public GameLoop(PlayGameScreen screen, double simulationRate,
+			double frameRate) {
+		if (simulationRate <= 0 || frameRate <= 0) {
+			throw new IllegalArgumentException("Rates must be positive");
+		}
+		this.screen = screen;
+		this.simulationStep = 1.0 / simulationRate;
+		this.frameRate = frameRate;
+	}
+
+	public synchronized void start() {
+		if (simulationScheduler != null) {
+			return;
+		}
+		lastTickTime = System.nanoTime();
+		rateSampleTime = lastTickTime;
+		simulationScheduler = Executors
+				.newSingleThreadScheduledExecutor(createThreadFactory("Simulation"));
+		renderScheduler = Executors
+				.newSingleThreadScheduledExecutor(createThreadFactory("Rendering"));
+		simulationScheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					simulate();
+				} catch (Throwable e) {
+					handleError(e);
+				}
+			}
+		}, 0, (long) (simulationStep * 1e9), TimeUnit.NANOSECONDS);
+		renderScheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					screen.repaint();
+				} catch (Throwable e) {
+					handleError(e);
+				}
+			}
+		}, 0, (long) (1e9 / frameRate), TimeUnit.NANOSECONDS);
+	}
+
+	public synchronized void stop() {
+		if (simulationScheduler != null) {
+			simulationScheduler.shutdownNow();
+			renderScheduler.shutdownNow();
+		}
+	}
+
+	private static ThreadFactory createThreadFactory(final String name) {
+		return new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	private void handleError(Throwable e) {
+		stop();
+		Thread.UncaughtExceptionHandler handler = Thread
+				.getDefaultUncaughtExceptionHandler();
+		if (handler != null) {
+			handler.uncaughtException(Thread.currentThread(), e);
+		} else {
+			e.printStackTrace();
+		}
+	}
+
+	private void simulate() {
+		long now = System.nanoTime();
+		accumulator += (now - lastTickTime) / 1e9;
+		lastTickTime = now;
+
+		int steps = 0;
+		while (accumulator >= simulationStep && steps < MAX_STEPS_PER_TICK) {
+			screen.beginSimulationStep();
+			screen.getGameState().evolve(
+					simulationStep * GUIConstants.TIME_SCALE);
+			accumulator -= simulationStep;
+			steps++;
+		}
+		if (accumulator >= simulationStep) {
+			accumulator = accumulator % simulationStep;
+		}
+		nbSimulationSteps.addAndGet(steps);
+		alpha = accumulator / simulationStep;
+	}
+
+	/**
+	 * Fraction of a simulation step that has elapsed since the last
+	 * simulation step, to interpolate between the previous and the current
+	 * state when rendering.
+	 */
+	public double getAlpha() {
+		return alpha;
+	}
+
+	/**
+	 * Duration of a single simulation step (in real seconds)
+	 */
+	public double getSimulationStep() {
+		return simulationStep;
+	}
+
+	/**
+	 * Registers that a frame has been rendered
+	 */
+	public void frameRendered() {
+		nbFrames.incrementAndGet();
+	}
+
+	public long getNbSimulationSteps() {
+		return nbSimulationSteps.get();
+	}
+
+	public long getNbFrames() {
+		return nbFrames.get();
+	}
+
+	/**
+	 * Simulation steps per real second, measured over the last second
+	 */
+	public double getSimulationRate() {
+		sampleRates();
+		synchronized (rateLock) {
+			return simulationRate;
+		}
+	}
+
+	/**
+	 * Rendered frames per real second, measured over the last second
+	 */
+	public double getFrameRate() {
+		sampleRates();
+		synchronized (rateLock) {
+			return measuredFrameRate;
+		}
+	}
+
+	private void sampleRates() {
+		synchronized (rateLock) {
+			long now = System.nanoTime();
+			double elapsed = (now - rateSampleTime) / 1e9;
+			if (elapsed >= 1) {
+				long steps = getNbSimulationSteps();
+				long frames = getNbFrames();
+				simulationRate = (steps - rateSampleSteps) / elapsed;
+				measuredFrameRate = (frames - rateSampleFrames) / elapsed;
+				rateSampleTime = now;
+				rateSampleSteps = steps;
+				rateSampleFrames = frames;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package worms.gui.game;
+
+import java.io.File;
+import java.io.IOException;
+
+import worms.gui.GUIConstants;
+import worms.gui.GUIOptions;
+import worms.gui.GameState;
+import worms.gui.Level;
+import worms.gui.Metrics;
+import worms.gui.WormsGUI;
+import worms.gui.game.commands.AddNewFood;
+import worms.gui.game.commands.AddNewWorm;
+import worms.gui.game.commands.StartGame;
+import worms.model.IFacade;
+import worms.model.WorldSnapshot;
+
+/**
+ * Plays a game between computer-controlled worms without a window, and
+ * records it as a sequence of PNG frames.
+ *
+ * The game runs on its usual game loop, in real time (or faster, depending on
+ * the fast-forward policy); frames are captured at the frame rate of the
+ * options. This also works with java.awt.headless=true.
+ */
+public class HeadlessGame {
+
+	private static final int NB_ENCODERS = Math.max(1, Runtime.getRuntime()
+			.availableProcessors() - 1);
+
+	private static final int MAX_PENDING_FRAMES = 2 * NB_ENCODERS;
+
+	private final IFacade facade;
+	private final GUIOptions options;
+	private final Metrics metrics = new Metrics();
+
+	public HeadlessGame(IFacade facade, GUIOptions options) {
+		this.facade = facade;
+		this.options = options;
+	}
+
+	/**
+	 * Returns the level with the given name, or the first available level if
+	 * the name is null
+	 */
+	private static Level findLevel(String name) {
+		for (Level level : Level.getAvailableLevels()) {
+			if (name == null || level.getName().equalsIgnoreCase(name)) {
+				return level;
+			}
+		}
+		throw new IllegalArgumentException("Unknown level: " + name);
+	}
+
+	/**
+	 * Timings of the recorded game
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Plays a game until it is finished or until the maximal number of frames
+	 * has been recorded, and returns the number of recorded frames.
+	 */
+	public int run() throws IOException, InterruptedException {
+		WormsGUI gui = new WormsGUI(facade, options);
+		GameState gameState = new GameState(facade, options.randomSeed,
+				findLevel(options.exportLevel), metrics);
+		PlayGameScreen screen = PlayGameScreen.create(gui, gameState, false);
+		gameState.createWorld();
+
+		OffscreenRenderer renderer = new OffscreenRenderer(screen, new File(
+				options.exportDirectory), GUIConstants.DEFAULT_WINDOW_WIDTH,
+				GUIConstants.DEFAULT_WINDOW_HEIGHT, NB_ENCODERS,
+				MAX_PENDING_FRAMES);
+		try {
+			screen.screenStarted();
+			for (int i = 0; i < options.exportNbWorms; i++) {
+				gameState.executeImmediately(new AddNewWorm(facade, true,
+						screen));
+			}
+			for (int i = 0; i < options.exportNbFood; i++) {
+				gameState.executeImmediately(new AddNewFood(facade, screen));
+			}
+			// turns of computer-controlled worms are played while starting
+			gameState.submit(new StartGame(facade, screen));
+
+			long frameTime = (long) (1e9 / options.framerate);
+			long nextFrame = System.nanoTime();
+			while (renderer.getNbFrames() < options.exportMaxFrames) {
+				WorldSnapshot snapshot = screen.getSnapshot();
+				boolean finished = snapshot != null
+						&& snapshot.isGameFinished();
+				renderer.renderFrame();
+				if (finished) {
+					break;
+				}
+				nextFrame += frameTime;
+				long delay = nextFrame - System.nanoTime();
+				if (delay > 0) {
+					Thread.sleep(delay / 1000000, (int) (delay % 1000000));
+				}
+			}
+		} finally {
+			screen.getGameLoop().stop();
+			gameState.getScheduler().shutdown();
+			renderer.close();
+		}
+		return renderer.getNbFrames();
+	}
+
+}
@@ -0,0 +1,195 @@
+package worms.gui.game;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import worms.gui.GUIUtils;
+
+/**
+ * Process-wide cache of sprite images.
+ *
+ * Each image file is decoded only once. Scaled and flipped versions are
+ * shared by all sprites that draw the same file at the same size in pixels,
+ * so scales are effectively quantized to whole pixels. The least recently
+ * used scaled versions are dropped when the cache is full.
+ *
+ * Cached images are shared, and must not be modified.
+ */
+public final class ImageCache {
+
+	/**
+	 * Maximal number of scaled versions that are kept
+	 */
+	private static final int MAX_SCALED_IMAGES = 256;
+
+	private static final Map<String, BufferedImage> originals = new HashMap<String, BufferedImage>();
+
+	private static final Map<Key, BufferedImage> scaledImages = new LinkedHashMap<Key, BufferedImage>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+			return size() > MAX_SCALED_IMAGES;
+		}
+	};
+
+	private static long nbLoads;
+	private static long nbScales;
+
+	private ImageCache() {
+	}
+
+	/**
+	 * Returns the image in the given file, at its original size
+	 */
+	public static synchronized BufferedImage getImage(String filename) {
+		BufferedImage result = originals.get(filename);
+		if (result == null) {
+			result = toCompatibleImage(load(filename));
+			originals.put(filename, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the image in the given file, scaled to the given size (in
+	 * pixels) and optionally flipped horizontally
+	 */
+	public static synchronized BufferedImage getImage(String filename,
+			int width, int height, boolean hflipped) {
+		BufferedImage original = getImage(filename);
+		width = Math.max(1, width);
+		height = Math.max(1, height);
+		if (!hflipped && width == original.getWidth()
+				&& height == original.getHeight()) {
+			return original;
+		}
+		Key key = new Key(filename, width, height, hflipped);
+		BufferedImage result = scaledImages.get(key);
+		if (result == null) {
+			if (hflipped) {
+				result = hflip(getImage(filename, width, height, false));
+			} else {
+				result = toCompatibleImage(original.getScaledInstance(width,
+						height, Image.SCALE_SMOOTH));
+				nbScales++;
+			}
+			scaledImages.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Number of times an image file has been decoded
+	 */
+	public static synchronized long getNbLoads() {
+		return nbLoads;
+	}
+
+	/**
+	 * Number of times an image has been rescaled
+	 */
+	public static synchronized long getNbScales() {
+		return nbScales;
+	}
+
+	public static synchronized void clear() {
+		originals.clear();
+		scaledImages.clear();
+	}
+
+	private static BufferedImage load(String filename) {
+		try {
+			InputStream inputStream = GUIUtils.openResource(filename);
+			try {
+				BufferedImage result = ImageIO.read(inputStream);
+				nbLoads++;
+				return result;
+			} finally {
+				inputStream.close();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(
+					"Could not read file '" + filename + "'", e);
+		}
+	}
+
+	/**
+	 * Copies the given image into an image that can be drawn to the screen
+	 * without conversion
+	 */
+	private static BufferedImage toCompatibleImage(Image img) {
+		int width = img.getWidth(null);
+		int height = img.getHeight(null);
+		BufferedImage result;
+		if (GraphicsEnvironment.isHeadless()) {
+			result = new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_ARGB);
+		} else {
+			result = GraphicsEnvironment.getLocalGraphicsEnvironment()
+					.getDefaultScreenDevice().getDefaultConfiguration()
+					.createCompatibleImage(width, height,
+							Transparency.TRANSLUCENT);
+		}
+		Graphics2D resultGraphics = result.createGraphics();
+		resultGraphics.drawImage(img, 0, 0, null);
+		resultGraphics.dispose();
+		return result;
+	}
+
+	private static BufferedImage hflip(BufferedImage image) {
+		BufferedImage flippedImage = new BufferedImage(image.getColorModel(),
+				image.getRaster().createCompatibleWritableRaster(),
+				image.isAlphaPremultiplied(), null);
+		Graphics2D flippedGraphics = flippedImage.createGraphics();
+		flippedGraphics.scale(-1, 1);
+		flippedGraphics.drawImage(image, -image.getWidth(), 0, null);
+		flippedGraphics.dispose();
+		return flippedImage;
+	}
+
+	private static final class Key {
+
+		private final String filename;
+		private final int width;
+		private final int height;
+		private final boolean hflipped;
+
+		private Key(String filename, int width, int height, boolean hflipped) {
+			this.filename = filename;
+			this.width = width;
+			this.height = height;
+			this.hflipped = hflipped;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return filename.equals(other.filename) && width == other.width
+					&& height == other.height && hflipped == other.hflipped;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = filename.hashCode();
+			result = 31 * result + width;
+			result = 31 * result + height;
+			return 31 * result + (hflipped ? 1 : 0);
+		}
+	}
+
+}
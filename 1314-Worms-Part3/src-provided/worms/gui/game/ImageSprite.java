@@ -3,21 +3,17 @@ package worms.gui.game;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-
-import javax.imageio.ImageIO;
-
-import worms.gui.GUIUtils;
 
 public abstract class ImageSprite<T> extends Sprite<T> {
 
+	private final String filename;
+
 	// original image, at original scale
 	private final BufferedImage originalImage;
 
-	// only created when scale != 1.0
+	// shared with other sprites through the image cache
 	private BufferedImage scaledImage;
-	// only create when necessary
+	// only looked up when necessary
 	private BufferedImage scaledImageHflipped;
 
 	private boolean hflipped = false;
@@ -27,6 +23,7 @@ public abstract class ImageSprite<T> extends Sprite<T> {
 	protected ImageSprite(PlayGameScreen screen, String filename) {
 		super(screen);
 		this.scale = 1.0;
+		this.filename = filename;
 		this.originalImage = loadImage(filename);
 		this.scaledImage = originalImage;
 	}
@@ -55,20 +52,17 @@ public abstract class ImageSprite<T> extends Sprite<T> {
 		}
 
 		this.scale = newScale;
-		if (newScale != 1.0) {
-			this.scaledImage = toBufferedImage(originalImage.getScaledInstance(
-					(int) (newScale * originalImage.getWidth()),
-					(int) (newScale * originalImage.getHeight()),
-					Image.SCALE_SMOOTH));
-		} else {
-			this.scaledImage = originalImage;
-		}
+		this.scaledImage = getCachedImage(false);
+		this.scaledImageHflipped = null;
+	}
 
-		if (isHflipped()) {
-			this.scaledImageHflipped = hflip(this.scaledImage);
-		} else {
-			this.scaledImageHflipped = null;
+	private BufferedImage getCachedImage(boolean hflipped) {
+		if (scale == 1.0 && !hflipped) {
+			return originalImage;
 		}
+		return ImageCache.getImage(filename,
+				(int) (scale * originalImage.getWidth()),
+				(int) (scale * originalImage.getHeight()), hflipped);
 	}
 
 	public double getScale() {
@@ -79,7 +73,7 @@ public abstract class ImageSprite<T> extends Sprite<T> {
 		Image imageToDraw = scaledImage;
 		if (isHflipped()) {
 			if (scaledImageHflipped == null) {
-				scaledImageHflipped = hflip(scaledImage);
+				scaledImageHflipped = getCachedImage(true);
 			}
 			imageToDraw = scaledImageHflipped;
 		}
@@ -87,15 +81,7 @@ public abstract class ImageSprite<T> extends Sprite<T> {
 	}
 
 	protected BufferedImage loadImage(String filename) {
-		try {
-			InputStream inputStream = GUIUtils.openResource(filename);
-			BufferedImage result = ImageIO.read(inputStream);
-			inputStream.close();
-			return result;
-		} catch (IOException e) {
-			throw new RuntimeException(
-					"Could not read file '" + filename + "'", e);
-		}
+		return ImageCache.getImage(filename);
 	}
 
 	public void setHflipped(boolean value) {
@@ -106,35 +92,18 @@ public abstract class ImageSprite<T> extends Sprite<T> {
 		return hflipped;
 	}
 
-	protected static BufferedImage hflip(BufferedImage image) {
-		BufferedImage flippedImage = new BufferedImage(image.getWidth(),
-				image.getHeight(), image.getType());
-		Graphics2D flippedGraphics = flippedImage.createGraphics();
-		flippedGraphics.scale(-1, 1);
-		flippedGraphics.drawImage(image, -image.getWidth(null), 0, null);
-		flippedGraphics.dispose();
-		return flippedImage;
-	}
-
-	protected static BufferedImage toBufferedImage(Image img) {
-		if (img instanceof BufferedImage) {
-			return (BufferedImage) img;
-		}
-
-		BufferedImage result = new BufferedImage(img.getWidth(null),
-				img.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-
-		Graphics2D resultGraphics = result.createGraphics();
-		resultGraphics.drawImage(img, 0, 0, null);
-		resultGraphics.dispose();
-
-		return result;
-	}
-
 	@Override
 	public void draw(Graphics2D g) {
-		int x = (int) (getCenterX() - getWidth(g) / 2);
-		int y = (int) (getCenterY() - getHeight(g) / 2);
+		draw(g, 1);
+	}
+
+	/**
+	 * Draws this sprite at its location interpolated by the given fraction of
+	 * a simulation step
+	 */
+	public void draw(Graphics2D g, double alpha) {
+		int x = (int) (getInterpolatedCenterX(alpha) - getWidth(g) / 2);
+		int y = (int) (getInterpolatedCenterY(alpha) - getHeight(g) / 2);
 		g.drawImage(getImageToDraw(), x, y, null);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package worms.gui.game;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renders text labels on a rounded background into small images, and keeps
+ * them so that they can be drawn again without measuring or rendering text.
+ *
+ * Labels are identified by their text; all labels of a cache share the same
+ * font, colors and margins. The least recently used labels are dropped when
+ * the cache is full, and all labels are dropped when the font changes.
+ */
+public class LabelCache {
+
+	private static final int MAX_LABELS = 1024;
+
+	private final Color background;
+	private final Color foreground;
+	private final double hMargin;
+	private final double vMargin;
+
+	private Font font;
+
+	private final Map<String, BufferedImage> labels = new LinkedHashMap<String, BufferedImage>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+			return size() > MAX_LABELS;
+		}
+	};
+
+	public LabelCache(Color background, Color foreground, double hMargin,
+			double vMargin) {
+		this.background = background;
+		this.foreground = foreground;
+		this.hMargin = hMargin;
+		this.vMargin = vMargin;
+	}
+
+	/**
+	 * Returns the image of the label with the given text in the given font.
+	 *
+	 * The baseline of the text lies at the given vertical margin above the
+	 * bottom of the image.
+	 */
+	public synchronized BufferedImage getLabel(String text, Font font) {
+		if (!font.equals(this.font)) {
+			labels.clear();
+			this.font = font;
+		}
+		BufferedImage result = labels.get(text);
+		if (result == null) {
+			result = render(text);
+			labels.put(text, result);
+		}
+		return result;
+	}
+
+	private BufferedImage render(String text) {
+		FontRenderContext frc = new FontRenderContext(null, true, true);
+		Rectangle2D bounds = font.getStringBounds(text, frc);
+		int width = (int) Math.ceil(bounds.getWidth() + 2 * hMargin);
+		int height = (int) Math.ceil(bounds.getHeight() + 2 * vMargin);
+
+		BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(
+				1, height), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+				RenderingHints.VALUE_ANTIALIAS_ON);
+		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+				RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS,
+				RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+		g.setColor(background);
+		g.fillRoundRect(0, 0, width, height, 5, 5);
+		g.setFont(font);
+		g.setColor(foreground);
+		g.drawString(text, (float) hMargin, (float) (height - vMargin));
+		g.dispose();
+		return image;
+	}
+
+	public synchronized int getNbLabels() {
+		return labels.size();
+	}
+
+}
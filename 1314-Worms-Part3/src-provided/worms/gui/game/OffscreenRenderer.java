@@ -0,0 +1,161 @@
+package worms.gui.game;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renders a play game screen into images instead of a Swing component, and
+ * writes them as a numbered sequence of PNG files.
+ *
+ * Frames are painted by the thread that calls {@link #renderFrame()}, using
+ * the same painter as the screen itself. They are encoded in parallel on a
+ * pool of worker threads. At most a fixed number of frames wait to be
+ * encoded; rendering blocks until a frame has been written when that number
+ * is reached, so memory use stays bounded.
+ */
+public class OffscreenRenderer {
+
+	private final PlayGameScreen screen;
+	private final File directory;
+	private final int width;
+	private final int height;
+
+	private final ExecutorService encoders;
+	private final Semaphore pendingFrames;
+
+	private int nbFrames = 0;
+	private final AtomicInteger nbWrittenFrames = new AtomicInteger();
+	private volatile IOException error;
+
+	/**
+	 * @param screen
+	 *            The screen to render
+	 * @param directory
+	 *            The directory to write the frames to; it is created if it
+	 *            does not exist
+	 * @param width
+	 *            Width of the frames (in pixels)
+	 * @param height
+	 *            Height of the frames (in pixels)
+	 * @param nbEncoders
+	 *            Number of threads that encode frames
+	 * @param maxPendingFrames
+	 *            Maximal number of rendered frames that wait to be encoded
+	 */
+	public OffscreenRenderer(PlayGameScreen screen, File directory, int width,
+			int height, int nbEncoders, int maxPendingFrames) {
+		if (width <= 0 || height <= 0 || nbEncoders <= 0
+				|| maxPendingFrames <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.screen = screen;
+		this.directory = directory;
+		this.width = width;
+		this.height = height;
+		this.pendingFrames = new Semaphore(maxPendingFrames);
+		this.encoders = Executors.newFixedThreadPool(nbEncoders,
+				new ThreadFactory() {
+					private final AtomicInteger nbThreads = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "Frame encoder "
+								+ nbThreads.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		directory.mkdirs();
+		screen.getContents().setSize(width, height);
+	}
+
+	/**
+	 * Paints the current state of the screen into a new image
+	 */
+	public BufferedImage paintFrame() {
+		BufferedImage image = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.BLACK);
+		g.fillRect(0, 0, width, height);
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+				RenderingHints.VALUE_ANTIALIAS_ON);
+		screen.paintTo(g);
+		g.dispose();
+		return image;
+	}
+
+	/**
+	 * Paints the current state of the screen, and queues it to be written as
+	 * the next frame of the sequence
+	 */
+	public void renderFrame() throws IOException, InterruptedException {
+		checkError();
+		pendingFrames.acquire();
+		final BufferedImage image;
+		try {
+			image = paintFrame();
+		} catch (RuntimeException e) {
+			pendingFrames.release();
+			throw e;
+		}
+		final File file = new File(directory, String.format("frame-%06d.png",
+				nbFrames++));
+		encoders.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					ImageIO.write(image, "png", file);
+					nbWrittenFrames.incrementAndGet();
+				} catch (IOException e) {
+					error = e;
+				} finally {
+					pendingFrames.release();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Waits until all queued frames have been written, and stops the encoder
+	 * threads
+	 */
+	public void close() throws IOException, InterruptedException {
+		encoders.shutdown();
+		encoders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		checkError();
+	}
+
+	private void checkError() throws IOException {
+		if (error != null) {
+			throw new IOException("Could not write frame", error);
+		}
+	}
+
+	/**
+	 * Number of frames that have been rendered
+	 */
+	public int getNbFrames() {
+		return nbFrames;
+	}
+
+	/**
+	 * Number of frames that have been written to disk
+	 */
+	public int getNbWrittenFrames() {
+		return nbWrittenFrames.get();
+	}
+
+}
@@ -1,19 +1,26 @@
 package worms.gui.game;
 
 import java.awt.Graphics2D;
-import java.util.ArrayList;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.geom.AffineTransform;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import worms.gui.FastForwardPolicy;
 import worms.gui.GUIConstants;
 import worms.gui.GUIUtils;
 import worms.gui.GameState;
 import worms.gui.InputMode;
 import worms.gui.Level;
+import worms.gui.Metrics;
 import worms.gui.Screen;
 import worms.gui.WormsGUI;
 import worms.gui.game.modes.DefaultInputMode;
@@ -23,23 +30,52 @@ import worms.gui.game.modes.SetupInputMode;
 import worms.gui.game.sprites.FoodSprite;
 import worms.gui.game.sprites.WormSprite;
 import worms.gui.messages.MessageType;
+import worms.model.Character;
 import worms.model.Food;
+import worms.model.GameObject;
 import worms.model.IFacade;
 import worms.model.World;
+import worms.model.WorldEvent;
+import worms.model.WorldListener;
 import worms.model.Worm;
+import worms.model.WorldSnapshot;
 
 public class PlayGameScreen extends Screen {
 
 	final PlayGameScreenPainter painter;
 	private final GameState gameState;
 
-	private final Set<Sprite<?>> sprites = new HashSet<Sprite<?>>();
+	/**
+	 * All sprites, and the same sprites grouped per requested sprite type.
+	 * These lists are copied on write, so that they can be iterated by the
+	 * painter without locking or copying.
+	 */
+	private final List<Sprite<?>> sprites = new CopyOnWriteArrayList<Sprite<?>>();
+	private final Map<Class<?>, List<Sprite<?>>> spritesByType = new ConcurrentHashMap<Class<?>, List<Sprite<?>>>();
+	private final Map<Class<?>, List<?>> spriteViewsByType = new ConcurrentHashMap<Class<?>, List<?>>();
+	private final Map<Object, Sprite<?>> spritesByObject = new IdentityHashMap<Object, Sprite<?>>();
 	private final DefaultActionHandler userActionHandler;
 	private final IActionHandler programActionHandler;
+	private volatile FastForwardPolicy fastForwardPolicy;
 
 	public PlayGameScreen(WormsGUI gui, GameState state) {
 		super(gui);
 		this.gameState = state;
+		this.fastForwardPolicy = gui.getOptions().fastForwardPolicy;
+		this.gameLoop = new GameLoop(this, GUIConstants.SIMULATION_RATE,
+				gui.getOptions().framerate);
+		this.camera = new Camera(this);
+		getContents().addMouseWheelListener(new MouseWheelListener() {
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				if (e.getWheelRotation() < 0) {
+					camera.zoomIn(e.getX(), e.getY());
+				} else if (e.getWheelRotation() > 0) {
+					camera.zoomOut(e.getX(), e.getY());
+				}
+				repaint();
+			}
+		});
 		this.painter = createPainter();
 		this.userActionHandler = createUserActionHandler();
 		this.programActionHandler = createProgramActionHandler();
@@ -60,37 +96,110 @@ public class PlayGameScreen extends Screen {
 
 	@Override
 	public void screenStarted() {
+		getWorld().addListener(worldListener);
+		synchronizeSprites();
 		runGameLoop();
 	}
 
-	final AtomicLong lastUpdateTimestamp = new AtomicLong();
-
-	final TimerTask gameLoop = new TimerTask() {
+	@Override
+	public void screenStopped() {
+		getWorld().removeListener(worldListener);
+		super.screenStopped();
+	}
 
+	/**
+	 * Receives the changes of the world, so that only the sprites of objects
+	 * that have actually changed need to be updated
+	 */
+	private final WorldListener worldListener = new WorldListener() {
 		@Override
-		public void run() {
-			long now = System.currentTimeMillis();
-			long delta = now - lastUpdateTimestamp.getAndSet(now);
-			double dt = delta / 1000.0 * GUIConstants.TIME_SCALE;
-			gameState.evolve(dt);
-			repaint();
+		public void worldChanged(WorldEvent event) {
+			handleWorldEvent(event);
 		}
 	};
+
+	/**
+	 * Objects that have been added to the world, but for which no sprite has
+	 * been created yet. Sprites are only created on the next update, when the
+	 * object has been fully initialized.
+	 */
+	private final Set<GameObject> spawnedObjects = new LinkedHashSet<GameObject>();
+
+	private final Set<Sprite<?>> dirtySprites = Collections
+			.newSetFromMap(new IdentityHashMap<Sprite<?>, Boolean>());
+
+	protected synchronized void handleWorldEvent(WorldEvent event) {
+		GameObject object = event.getObject();
+		switch (event.getType()) {
+		case SPAWNED:
+			spawnedObjects.add(object);
+			break;
+		case TERMINATED:
+			spawnedObjects.remove(object);
+			Sprite<?> sprite = getSpriteFor(object);
+			if (sprite != null) {
+				dirtySprites.remove(sprite);
+				removeSprite(sprite);
+			}
+			break;
+		default:
+			markDirty(object);
+			break;
+		}
+	}
+
+	private void markDirty(GameObject object) {
+		Sprite<?> sprite = getSpriteFor(object);
+		if (sprite != null) {
+			dirtySprites.add(sprite);
+		}
+	}
+
+	private final GameLoop gameLoop;
+
+	private final Camera camera;
+
 	private Worm currentWorm;
 
 	private void runGameLoop() {
-		Timer timer = new Timer();
 		Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
 			@Override
 			public void uncaughtException(Thread t, Throwable e) {
-				gameLoop.cancel();
+				gameLoop.stop();
 				e.printStackTrace();
 				getGUI().showError(
 						e.getClass().getName() + ": " + e.getMessage());
 			}
 		});
-		lastUpdateTimestamp.set(System.currentTimeMillis());
-		timer.scheduleAtFixedRate(gameLoop, 0, 1000 / GUIConstants.FRAMERATE);
+		gameLoop.start();
+	}
+
+	public GameLoop getGameLoop() {
+		return gameLoop;
+	}
+
+	public Camera getCamera() {
+		return camera;
+	}
+
+	/**
+	 * Called by the game loop before each simulation step
+	 */
+	void beginSimulationStep() {
+		for (Sprite<?> sprite : sprites) {
+			sprite.saveLocation();
+		}
+	}
+
+	/**
+	 * Fraction of a simulation step that has elapsed since the last
+	 * simulation step
+	 */
+	public double getInterpolationAlpha() {
+		if (gameLoop == null) {
+			return 1;
+		}
+		return gameLoop.getAlpha();
 	}
 
 	public void gameFinished() {
@@ -99,21 +208,60 @@ public class PlayGameScreen extends Screen {
 						+ getFacade().getWinner(getWorld())
 						+ "\n\nPress 'R' to start another game, or 'ESC' to quit.",
 				MessageType.NORMAL);
-		gameLoop.cancel();
+		gameLoop.stop();
 		switchInputMode(new GameOverMode(this, getCurrentInputMode()));
 	}
 
+	/**
+	 * Brings the sprites up to date with the changes that have been reported
+	 * by the world since the last update
+	 */
 	public synchronized void update() {
+		long start = System.nanoTime();
+		getGameState().publishSnapshot();
+		for (GameObject object : spawnedObjects) {
+			if (object.isAlive() && getSpriteFor(object) == null) {
+				createSpriteFor(object);
+			}
+		}
+		spawnedObjects.clear();
+		for (Sprite<?> sprite : dirtySprites) {
+			sprite.update();
+		}
+		dirtySprites.clear();
+		updateCurrentWorm();
+		getMetrics().getScreenUpdate().recordSince(start);
+	}
+
+	/**
+	 * Rebuilds all sprites from the current state of the world
+	 */
+	protected synchronized void synchronizeSprites() {
+		getGameState().publishSnapshot();
+		spawnedObjects.clear();
+		dirtySprites.clear();
 		removeInactiveSprites();
 		addNewSprites();
 		for (Sprite<?> sprite : sprites) {
 			sprite.update();
 		}
-		currentWorm = getFacade().getCurrentWorm(getWorld());
+		updateCurrentWorm();
+	}
+
+	private void updateCurrentWorm() {
+		Character player = getSnapshot().getCurrentPlayer();
+		currentWorm = (player instanceof Worm) ? (Worm) player : null;
+	}
+
+	/**
+	 * Returns the most recently published snapshot of the world
+	 */
+	public WorldSnapshot getSnapshot() {
+		return getGameState().getSnapshot();
 	}
 
 	protected void removeInactiveSprites() {
-		for (Sprite<?> sprite : new ArrayList<Sprite<?>>(sprites)) {
+		for (Sprite<?> sprite : sprites) {
 			if (!sprite.isObjectAlive()) {
 				removeSprite(sprite);
 			}
@@ -149,6 +297,14 @@ public class PlayGameScreen extends Screen {
 		}
 	}
 
+	private void createSpriteFor(GameObject object) {
+		if (object instanceof Worm) {
+			createWormSprite((Worm) object);
+		} else if (object instanceof Food) {
+			createFoodSprite((Food) object);
+		}
+	}
+
 	private void createFoodSprite(Food food) {
 		FoodSprite sprite = new FoodSprite(this, food);
 		addSprite(sprite);
@@ -159,6 +315,17 @@ public class PlayGameScreen extends Screen {
 		addSprite(sprite);
 	}
 
+	/**
+	 * Returns how fast the commands of computer-controlled worms are played
+	 */
+	public FastForwardPolicy getFastForwardPolicy() {
+		return fastForwardPolicy;
+	}
+
+	public void setFastForwardPolicy(FastForwardPolicy fastForwardPolicy) {
+		this.fastForwardPolicy = fastForwardPolicy;
+	}
+
 	public GameState getGameState() {
 		return gameState;
 	}
@@ -171,27 +338,55 @@ public class PlayGameScreen extends Screen {
 		return new PlayGameScreenPainter(this);
 	}
 
-	public <T extends Sprite<?>> Set<T> getSpritesOfType(Class<T> type) {
-		Set<T> result = new HashSet<T>();
-		for (Sprite<?> sprite : sprites) {
-			if (type.isInstance(sprite)) {
-				result.add(type.cast(sprite));
+	/**
+	 * Returns a live, unmodifiable view of the sprites of the given type.
+	 *
+	 * The view can be iterated without locking, and reflects the sprites at
+	 * the moment the iteration starts.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Sprite<?>> List<T> getSpritesOfType(Class<T> type) {
+		List<?> view = spriteViewsByType.get(type);
+		if (view == null) {
+			view = createBucket(type);
+		}
+		return (List<T>) view;
+	}
+
+	private synchronized List<?> createBucket(Class<?> type) {
+		List<?> view = spriteViewsByType.get(type);
+		if (view == null) {
+			List<Sprite<?>> bucket = new CopyOnWriteArrayList<Sprite<?>>();
+			for (Sprite<?> sprite : sprites) {
+				if (type.isInstance(sprite)) {
+					bucket.add(sprite);
+				}
 			}
+			view = Collections.unmodifiableList(bucket);
+			spritesByType.put(type, bucket);
+			spriteViewsByType.put(type, view);
 		}
-		return result;
+		return view;
 	}
 
 	public <ObjectType, SpriteType extends Sprite<ObjectType>> SpriteType getSpriteOfTypeFor(
 			Class<SpriteType> type, ObjectType object) {
+		Sprite<?> sprite = getSpriteFor(object);
+		if (type.isInstance(sprite)) {
+			return type.cast(sprite);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the sprite of any type for the given object, or null if there
+	 * is none
+	 */
+	public synchronized Sprite<?> getSpriteFor(Object object) {
 		if (object == null) {
 			return null;
 		}
-		for (SpriteType sprite : getSpritesOfType(type)) {
-			if (object.equals(sprite.getObject())) {
-				return sprite;
-			}
-		}
-		return null;
+		return spritesByObject.get(object);
 	}
 
 	public WormSprite getWormSprite(Worm worm) {
@@ -253,7 +448,28 @@ public class PlayGameScreen extends Screen {
 
 	@Override
 	protected void paintScreen(Graphics2D g) {
+		long start = System.nanoTime();
 		painter.paint(g);
+		getMetrics().getPaint().recordSince(start);
+		if (isMetricsShown()) {
+			painter.paintMetrics(g, getMetrics());
+		}
+		gameLoop.frameRendered();
+	}
+
+	private volatile boolean metricsShown = false;
+
+	public Metrics getMetrics() {
+		return getGameState().getMetrics();
+	}
+
+	public boolean isMetricsShown() {
+		return metricsShown;
+	}
+
+	public void toggleMetrics() {
+		this.metricsShown = !metricsShown;
+		repaint();
 	}
 
 	public static PlayGameScreen create(WormsGUI gui, GameState gameState,
@@ -278,12 +494,35 @@ public class PlayGameScreen extends Screen {
 		return getGameState().getWorld();
 	}
 
-	public void addSprite(Sprite<?> sprite) {
+	public synchronized void addSprite(Sprite<?> sprite) {
+		Sprite<?> previous = spritesByObject.put(sprite.getObject(), sprite);
+		if (previous != null) {
+			removeFromBuckets(previous);
+		}
 		sprites.add(sprite);
+		for (Map.Entry<Class<?>, List<Sprite<?>>> bucket : spritesByType
+				.entrySet()) {
+			if (bucket.getKey().isInstance(sprite)) {
+				bucket.getValue().add(sprite);
+			}
+		}
 	}
 
-	public void removeSprite(Sprite<?> sprite) {
+	public synchronized void removeSprite(Sprite<?> sprite) {
+		if (sprite == null) {
+			return;
+		}
+		if (spritesByObject.get(sprite.getObject()) == sprite) {
+			spritesByObject.remove(sprite.getObject());
+		}
+		removeFromBuckets(sprite);
+	}
+
+	private void removeFromBuckets(Sprite<?> sprite) {
 		sprites.remove(sprite);
+		for (List<Sprite<?>> bucket : spritesByType.values()) {
+			bucket.remove(sprite);
+		}
 	}
 
 	/**
@@ -296,7 +535,7 @@ public class PlayGameScreen extends Screen {
 	/**
 	 * Width of the world when displayed (in pixels)
 	 */
-	private double getWorldDisplayWidth() {
+	double getWorldDisplayWidth() {
 		if (getLevel().getMapAspectRatio() >= getScreenAspectRatio()) {
 			return getScreenWidth();
 		} else {
@@ -307,7 +546,7 @@ public class PlayGameScreen extends Screen {
 	/**
 	 * Height of the world when displayed (in pixels)
 	 */
-	private double getWorldDisplayHeight() {
+	double getWorldDisplayHeight() {
 		if (getLevel().getMapAspectRatio() <= getScreenAspectRatio()) {
 			return getScreenHeight();
 		} else {
@@ -375,12 +614,14 @@ public class PlayGameScreen extends Screen {
 
 	public void drawTurnAngleIndicator(Graphics2D g, WormSprite wormSprite,
 			double currentAngle) {
+		AffineTransform screenTransform = g.getTransform();
+		g.transform(camera.getTransform());
 		painter.drawTurnAngleIndicator(g, wormSprite, currentAngle);
+		g.setTransform(screenTransform);
 	}
 
 	public <T, S extends Sprite<T>> void removeSpriteFor(Class<S> type, T object) {
-		S sprite = getSpriteOfTypeFor(type, object);
-		sprites.remove(sprite);
+		removeSprite(getSpriteOfTypeFor(type, object));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -442,7 +683,10 @@ public class PlayGameScreen extends Screen {
 			double propulsionFraction) {
 		WormSprite sprite = getSelectedWormSprite();
 		if (sprite != null) {
+			AffineTransform screenTransform = g.getTransform();
+			g.transform(camera.getTransform());
 			painter.drawShootingInfo(g, sprite, propulsionFraction);
+			g.setTransform(screenTransform);
 		}
 	}
 
@@ -2,16 +2,20 @@ package worms.gui.game;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.RenderingHints;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D.Double;
 import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
 
 import worms.gui.GUIUtils;
 import worms.gui.Level;
 import worms.gui.game.sprites.FoodSprite;
 import worms.gui.game.sprites.WormSprite;
+import worms.model.IFacade;
 import worms.model.World;
 
 public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
@@ -22,7 +26,23 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 
 	private static final boolean PAINT_PASSABLE = true;
 
-	private Image passableImage;
+	private static final Color IMPASSABLE_COLOR = new Color(255, 0, 0, 4);
+	private static final Color ADJACENT_COLOR = new Color(0, 255, 0, 64);
+	private static final Color PASSABLE_COLOR = new Color(0, 0, 255, 4);
+
+	/**
+	 * Minimal number of sample rows that are rendered as a single task
+	 */
+	private static final int MIN_BAND_ROWS = 8;
+
+	private BufferedImage passableImage;
+
+	// the terrain, test radius and size for which the passable image was made
+	private Level passableLevel;
+	private World passableWorld;
+	private double passableRadius;
+	private int passableWidth;
+	private int passableHeight;
 
 	public PlayGameScreenDebugPainter(PlayGameScreen screen) {
 		super(screen);
@@ -31,15 +51,32 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 	@Override
 	public void paint(Graphics2D g) {
 		super.paint(g);
+		drawRates(g);
+	}
+
+	/**
+	 * Report the simulation throughput and the frame rate
+	 */
+	protected void drawRates(Graphics2D g) {
+		GameLoop loop = getScreen().getGameLoop();
+		String text = String.format(
+				"simulation: %.0f steps/s, rendering: %.1f fps",
+				loop.getSimulationRate(), loop.getFrameRate());
+		g.setColor(Color.WHITE);
+		g.drawString(text, 10, 20);
 	}
 
 	@Override
 	protected void paintLevel() {
 		super.paintLevel();
 
-		if (passableImage == null) {
-			BufferedImage image = createPassableImage();
-			this.passableImage = image;
+		if (!isPassableImageValid()) {
+			this.passableImage = createPassableImage();
+			this.passableLevel = getLevel();
+			this.passableWorld = getWorld();
+			this.passableRadius = getTestRadius();
+			this.passableWidth = getScreen().getScreenWidth();
+			this.passableHeight = getScreen().getScreenHeight();
 		}
 
 		currentGraphics.drawImage(passableImage, 0, 0, null);
@@ -53,57 +90,171 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 				getScreenY(getLevel().getWorldHeight()), 10, Color.BLUE);
 	}
 
+	/**
+	 * Whether the passable image has been made for the current terrain, test
+	 * radius and screen size
+	 */
+	private boolean isPassableImageValid() {
+		return passableImage != null && passableLevel == getLevel()
+				&& passableWorld == getWorld()
+				&& passableRadius == getTestRadius()
+				&& passableWidth == getScreen().getScreenWidth()
+				&& passableHeight == getScreen().getScreenHeight();
+	}
+
+	/**
+	 * Radius (in meters) of the circles that are classified, corresponding to
+	 * 10 screen pixels
+	 */
+	private double getTestRadius() {
+		return getScreen().screenToWorldDistance(10);
+	}
+
+	/**
+	 * Classifies the terrain on a grid, in parallel across bands of rows.
+	 */
 	protected BufferedImage createPassableImage() {
 		Level level = getState().getLevel();
-		World world = getState().getWorld();
+		double testRadius = getTestRadius();
+		double stepSize = getScreen().screenToWorldDistance(3); // 3 screen
+																// pixels
+		int nbColumns = (int) Math
+				.floor((level.getWorldWidth() - 2 * testRadius) / stepSize) + 1;
+		int nbRows = (int) Math
+				.floor((level.getWorldHeight() - 2 * testRadius) / stepSize) + 1;
 
 		BufferedImage image = new BufferedImage(getScreen().getScreenWidth(),
 				getScreen().getScreenHeight(), BufferedImage.TYPE_4BYTE_ABGR);
-		BufferedImage adjacencyImage = new BufferedImage(getScreen()
-				.getScreenWidth(), getScreen().getScreenHeight(),
-				BufferedImage.TYPE_4BYTE_ABGR);
+		if (nbColumns <= 0 || nbRows <= 0) {
+			return image;
+		}
+
+		OverlayBand[] bands = new OverlayBand[(nbRows + MIN_BAND_ROWS - 1)
+				/ MIN_BAND_ROWS];
+		ForkJoinPool.commonPool().invoke(
+				new OverlayTask(bands, 0, bands.length, nbRows, nbColumns,
+						testRadius, stepSize));
+
 		Graphics2D imGfx = image.createGraphics();
+		for (OverlayBand band : bands) {
+			imGfx.drawImage(band.image, 0, band.top, null);
+		}
+		for (OverlayBand band : bands) {
+			imGfx.drawImage(band.adjacencyImage, 0, band.top, null);
+		}
+		imGfx.dispose();
+		return image;
+	}
+
+	/**
+	 * Classified samples of a band of rows, drawn into images that only span
+	 * the screen rows of that band
+	 */
+	private static class OverlayBand {
+		private int top;
+		private BufferedImage image;
+		private BufferedImage adjacencyImage;
+	}
+
+	@SuppressWarnings("serial")
+	private class OverlayTask extends RecursiveAction {
+
+		private final OverlayBand[] bands;
+		private final int from;
+		private final int to;
+		private final int nbRows;
+		private final int nbColumns;
+		private final double testRadius;
+		private final double stepSize;
+
+		OverlayTask(OverlayBand[] bands, int from, int to, int nbRows,
+				int nbColumns, double testRadius, double stepSize) {
+			this.bands = bands;
+			this.from = from;
+			this.to = to;
+			this.nbRows = nbRows;
+			this.nbColumns = nbColumns;
+			this.testRadius = testRadius;
+			this.stepSize = stepSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				int firstRow = from * MIN_BAND_ROWS;
+				int lastRow = Math.min(nbRows, firstRow + MIN_BAND_ROWS) - 1;
+				bands[from] = createBand(firstRow, lastRow, nbColumns,
+						testRadius, stepSize);
+			} else {
+				int middle = (from + to) / 2;
+				invokeAll(new OverlayTask(bands, from, middle, nbRows,
+						nbColumns, testRadius, stepSize), new OverlayTask(bands,
+						middle, to, nbRows, nbColumns, testRadius, stepSize));
+			}
+		}
+	}
+
+	private OverlayBand createBand(int firstRow, int lastRow, int nbColumns,
+			double testRadius, double stepSize) {
+		IFacade facade = getState().getFacade();
+		World world = getState().getWorld();
+		Random random = ThreadLocalRandom.current();
+		double radius = getScreen().worldToScreenDistance(testRadius);
+
+		// samples are randomized over at most one step in each direction
+		double minY = testRadius + (firstRow - 1) * stepSize;
+		double maxY = testRadius + (lastRow + 1) * stepSize;
+		int top = Math.max(0, (int) Math.floor(getScreenY(maxY) - radius) - 1);
+		int bottom = Math.min(getScreen().getScreenHeight(),
+				(int) Math.ceil(getScreenY(minY) + radius) + 1);
+
+		OverlayBand band = new OverlayBand();
+		band.top = top;
+		int height = Math.max(1, bottom - top);
+		band.image = new BufferedImage(getScreen().getScreenWidth(), height,
+				BufferedImage.TYPE_4BYTE_ABGR);
+		band.adjacencyImage = new BufferedImage(getScreen().getScreenWidth(),
+				height, BufferedImage.TYPE_4BYTE_ABGR);
+		Graphics2D imGfx = band.image.createGraphics();
 		imGfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
 				RenderingHints.VALUE_ANTIALIAS_ON);
-		Graphics2D imAdjacencyGfx = adjacencyImage.createGraphics();
+		imGfx.translate(0, -top);
+		Graphics2D imAdjacencyGfx = band.adjacencyImage.createGraphics();
 		imAdjacencyGfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
 				RenderingHints.VALUE_ANTIALIAS_ON);
-
-		double testRadius = getScreen().screenToWorldDistance(10); // 10
-																	// screen
-																	// pixels
-		double stepSize = getScreen().screenToWorldDistance(3); // 3 screen
-																// pixels
-		for (double x = testRadius; x <= level.getWorldWidth() - testRadius; x += stepSize) {
-			for (double y = testRadius; y <= level.getWorldHeight()
-					- testRadius; y += stepSize) {
-				double randomizedX = x + (-0.5 + Math.random()) * stepSize * 2;
-				double randomizedY = y + (-0.5 + Math.random()) * stepSize * 2;
+		imAdjacencyGfx.translate(0, -top);
+
+		for (int column = 0; column < nbColumns; column++) {
+			double x = testRadius + column * stepSize;
+			for (int row = firstRow; row <= lastRow; row++) {
+				double y = testRadius + row * stepSize;
+				double randomizedX = x + (-0.5 + random.nextDouble())
+						* stepSize * 2;
+				double randomizedY = y + (-0.5 + random.nextDouble())
+						* stepSize * 2;
 				Graphics2D targetGraphics = imGfx;
 				boolean isPassable = false;
-				if (getState().getFacade().isImpassable(world, randomizedX,
-						randomizedY, testRadius)) {
-					targetGraphics.setColor(new Color(255, 0, 0, 4));
-				} else if (getState().getFacade().isAdjacent(world,
-						randomizedX, randomizedY, testRadius)) {
+				if (facade.isImpassable(world, randomizedX, randomizedY,
+						testRadius)) {
+					targetGraphics.setColor(IMPASSABLE_COLOR);
+				} else if (facade.isAdjacent(world, randomizedX, randomizedY,
+						testRadius)) {
 					targetGraphics = imAdjacencyGfx;
-					targetGraphics.setColor(new Color(0, 255, 0, 64));
+					targetGraphics.setColor(ADJACENT_COLOR);
 				} else {
 					isPassable = true;
-					targetGraphics.setColor(new Color(0, 0, 255, 4));
+					targetGraphics.setColor(PASSABLE_COLOR);
 				}
 				if (!isPassable || PAINT_PASSABLE) {
 					Double circle = GUIUtils.circleAt(getScreenX(randomizedX),
-							getScreenY(randomizedY), getScreen()
-									.worldToScreenDistance(testRadius));
+							getScreenY(randomizedY), radius);
 					targetGraphics.fill(circle);
 				}
 			}
 		}
-		imGfx.drawImage(adjacencyImage, 0, 0, null);
 		imAdjacencyGfx.dispose();
 		imGfx.dispose();
-		return image;
+		return band;
 	}
 
 	@Override
@@ -162,8 +313,8 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 	protected void paintFood(FoodSprite sprite) {
 		super.paintFood(sprite);
 		double r = sprite.getRadius();
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 
 		currentGraphics.setColor(Color.CYAN);
 		Shape circle = GUIUtils.circleAt(x, y, getScreen()
@@ -175,8 +326,8 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 
 	protected void drawOutline(WormSprite sprite) {
 		double r = sprite.getRadius();
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 
 		currentGraphics.setColor(Color.YELLOW);
 		Shape circle = GUIUtils.circleAt(x, y, getScreen()
@@ -186,8 +337,8 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 	}
 
 	protected void drawDirectionLine(WormSprite sprite) {
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 		double dist = sprite.getHeight(currentGraphics) / 2.0;
 		double direction = sprite.getOrientation();
 
@@ -3,11 +3,12 @@ package worms.gui.game;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.Shape;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -16,10 +17,10 @@ import worms.gui.AbstractPainter;
 import worms.gui.GUIUtils;
 import worms.gui.GameState;
 import worms.gui.Level;
+import worms.gui.Metrics;
 import worms.gui.game.sprites.FoodSprite;
 import worms.gui.game.sprites.ProjectileSprite;
 import worms.gui.game.sprites.WormSprite;
-import worms.model.ModelException;
 import worms.model.World;
 
 public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
@@ -62,19 +63,36 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 	protected static final int JUMP_MARKER_SIZE = 1;
 	protected static final double DIRECTION_INDICATOR_SIZE = 10;
 
+	/**
+	 * Distance (in layout pixels) around a sprite in which its name and bars
+	 * are drawn
+	 */
+	protected static final double CULLING_MARGIN = 100;
+
 	protected Graphics2D currentGraphics;
-	private Image scaledImage;
+	/**
+	 * Fraction of a simulation step by which sprite locations are
+	 * interpolated in the current frame
+	 */
+	protected double alpha = 1;
+	private AffineTransform screenTransform;
+	private Rectangle2D visibleArea;
+	private TerrainTileCache terrainTiles;
+
+	private final LabelCache nameLabels = new LabelCache(NAME_BAR_BACKGROUND,
+			NAME_BAR_TEXT, TEXT_BAR_H_MARGIN, TEXT_BAR_V_MARGIN);
+	// only used by the painting thread
+	private final RoundRectangle2D.Double barShape = new RoundRectangle2D.Double();
 
 	public PlayGameScreenPainter(PlayGameScreen screen) {
 		super(screen);
 	}
 
-	private void createBackgroundImage() {
-		if (scaledImage == null) {
-			scaledImage = GUIUtils.scaleTo(getState().getLevel().getMapImage(),
-					getScreen().getScreenWidth(),
-					getScreen().getScreenHeight(), Image.SCALE_SMOOTH);
+	private TerrainTileCache getTerrainTiles() {
+		if (terrainTiles == null) {
+			terrainTiles = new TerrainTileCache(getLevel().getMapImage());
 		}
+		return terrainTiles;
 	}
 
 	protected GameState getState() {
@@ -89,44 +107,83 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 		return getState().getLevel();
 	}
 
+	/**
+	 * Paints the part of the world that is visible through the camera of the
+	 * screen. Everything is painted in layout coordinates; sprites outside of
+	 * the visible area are skipped.
+	 */
 	public void paint(Graphics2D g) {
 		this.currentGraphics = g;
+		this.alpha = getScreen().getInterpolationAlpha();
+		this.screenTransform = g.getTransform();
+		Camera camera = getScreen().getCamera();
+		this.visibleArea = camera.getVisibleArea();
+		g.transform(camera.getTransform());
 
 		paintLevel();
 
 		for (FoodSprite sprite : getScreen().getSpritesOfType(FoodSprite.class)) {
-			paintFood(sprite);
+			if (isVisible(sprite)) {
+				paintFood(sprite);
+			}
 		}
 
 		for (WormSprite sprite : getScreen().getSpritesOfType(WormSprite.class)) {
-			if (sprite.getWorm() == getScreen().getSelectedWorm()) {
-				drawSelection(sprite);
+			boolean selected = sprite.getWorm() == getScreen()
+					.getSelectedWorm();
+			if (selected || isVisible(sprite)) {
+				if (selected) {
+					drawSelection(sprite);
+				}
+				paintWorm(sprite);
 			}
-			paintWorm(sprite);
 		}
 
 		for (ProjectileSprite sprite : getScreen().getSpritesOfType(
 				ProjectileSprite.class)) {
-			paintProjectile(sprite);
+			if (isVisible(sprite)) {
+				paintProjectile(sprite);
+			}
 		}
 
+		g.setTransform(screenTransform);
 		this.currentGraphics = null;
 	}
 
+	/**
+	 * Whether the given sprite, or its name or bars, may be visible
+	 */
+	protected boolean isVisible(Sprite<?> sprite) {
+		double width = sprite.getWidth(currentGraphics) + 2 * CULLING_MARGIN;
+		double height = sprite.getHeight(currentGraphics) + 2 * CULLING_MARGIN;
+		return visibleArea.intersects(sprite.getInterpolatedCenterX(alpha) - width / 2,
+				sprite.getInterpolatedCenterY(alpha) - height / 2, width, height);
+	}
+
 	protected void paintProjectile(ProjectileSprite sprite) {
 		sprite.draw(currentGraphics);
 	}
 
 	protected void paintFood(FoodSprite sprite) {
-		sprite.draw(currentGraphics);
+		sprite.draw(currentGraphics, alpha);
 	}
 
+	/**
+	 * Paints the visible tiles of the terrain, at the resolution of the screen
+	 */
 	protected void paintLevel() {
-		createBackgroundImage();
-
-		int x = (int) getScreenX(0);
-		int y = (int) getScreenY(getLevel().getWorldHeight());
-		currentGraphics.drawImage(scaledImage, x, y, null);
+		Camera camera = getScreen().getCamera();
+		double left = camera.toScreenX(getScreenX(0));
+		double top = camera.toScreenY(getScreenY(getLevel().getWorldHeight()));
+
+		AffineTransform layoutTransform = currentGraphics.getTransform();
+		currentGraphics.setTransform(screenTransform);
+		getTerrainTiles().draw(currentGraphics, left, top,
+				getScreen().getWorldDisplayWidth(),
+				getScreen().getWorldDisplayHeight(), camera.getZoomLevel(),
+				camera.getZoom(), getScreen().getScreenWidth(),
+				getScreen().getScreenHeight());
+		currentGraphics.setTransform(layoutTransform);
 	}
 
 	protected double getScreenX(double x) {
@@ -139,7 +196,7 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 
 	protected void paintWorm(WormSprite sprite) {
 
-		sprite.draw(currentGraphics);
+		sprite.draw(currentGraphics, alpha);
 
 		drawName(sprite);
 
@@ -154,89 +211,56 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 
 	protected void drawName(WormSprite sprite) {
 		final double voffset = sprite.getHeight(currentGraphics) / 2;
-		String name = sprite.getName();
-
-		if (name == null) {
-			name = "(null)";
-		}
-
-		String teamName = null;
-		try {
-			teamName = sprite.getTeamName();
-		} catch (ModelException e) {
-			// no team
-		}
-
-		if (teamName != null) {
-			name += " (" + teamName + ")";
-		}
-
-		Rectangle2D bounds = currentGraphics.getFontMetrics().getStringBounds(
-				name, currentGraphics);
-		final double stringWidth = bounds.getWidth();
-		final double stringHeight = bounds.getHeight();
-
-		final double x = sprite.getCenterX() - stringWidth / 2;
-		final double y = sprite.getCenterY() - voffset - TEXT_BAR_V_OFFSET;
-
-		RoundRectangle2D nameBarFill = new RoundRectangle2D.Double(x
-				- TEXT_BAR_H_MARGIN, y - stringHeight - TEXT_BAR_V_MARGIN,
-				stringWidth + 2 * TEXT_BAR_H_MARGIN, stringHeight + 2
-						* TEXT_BAR_V_MARGIN, 5, 5);
-		currentGraphics.setColor(NAME_BAR_BACKGROUND);
-		currentGraphics.fill(nameBarFill);
+		BufferedImage label = nameLabels.getLabel(sprite.getLabel(),
+				currentGraphics.getFont());
 
-		currentGraphics.setColor(NAME_BAR_TEXT);
+		final double x = sprite.getInterpolatedCenterX(alpha) - label.getWidth() / 2.0;
+		final double y = sprite.getInterpolatedCenterY(alpha) - voffset - TEXT_BAR_V_OFFSET
+				+ TEXT_BAR_V_MARGIN - label.getHeight();
 
-		currentGraphics.drawString(name, (float) x, (float) (y));
+		currentGraphics.drawImage(label, (int) Math.round(x),
+				(int) Math.round(y), null);
 	}
 
 	protected void drawActionBar(WormSprite sprite) {
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 		double spriteHeight = sprite.getHeight(currentGraphics);
 
-		double actionPoints = sprite.getActionPoints();
-		double maxActionPoints = sprite.getMaxActionPoints();
-
-		RoundRectangle2D actionBarFill = new RoundRectangle2D.Double(x
-				- ACTION_BAR_WIDTH / 2, y + spriteHeight / 2, actionPoints
-				* ACTION_BAR_WIDTH / maxActionPoints, ACTION_BAR_HEIGHT, 5, 5);
-		currentGraphics.setColor(ACTION_POINTS_COLOR);
-		currentGraphics.fill(actionBarFill);
-
-		RoundRectangle2D actionBar = new RoundRectangle2D.Double(x
-				- ACTION_BAR_WIDTH / 2, y + spriteHeight / 2, ACTION_BAR_WIDTH,
-				ACTION_BAR_HEIGHT, 5, 5);
-		currentGraphics.setColor(BAR_OUTLINE_COLOR);
-		currentGraphics.draw(actionBar);
+		drawBar(x - ACTION_BAR_WIDTH / 2, y + spriteHeight / 2,
+				sprite.getActionPoints(), sprite.getMaxActionPoints(),
+				ACTION_POINTS_COLOR);
 	}
 
 	protected void drawHitpointsBar(WormSprite sprite) {
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 		double spriteHeight = sprite.getHeight(currentGraphics);
 
-		double hitPoints = sprite.getHitPoints();
-		double maxHitPoints = sprite.getMaxHitPoints();
+		drawBar(x - ACTION_BAR_WIDTH / 2, y + spriteHeight / 2
+				+ ACTION_BAR_HEIGHT, sprite.getHitPoints(),
+				sprite.getMaxHitPoints(), HIT_POINTS_COLOR);
+	}
 
-		RoundRectangle2D hitpointsBarFill = new RoundRectangle2D.Double(x
-				- ACTION_BAR_WIDTH / 2, y + spriteHeight / 2
-				+ ACTION_BAR_HEIGHT, hitPoints * ACTION_BAR_WIDTH
-				/ maxHitPoints, ACTION_BAR_HEIGHT, 5, 5);
-		currentGraphics.setColor(HIT_POINTS_COLOR);
-		currentGraphics.fill(hitpointsBarFill);
+	/**
+	 * Draws a horizontal bar that is filled for the given fraction, reusing
+	 * the same shape objects for all bars
+	 */
+	private void drawBar(double x, double y, double value, double maxValue,
+			Color fillColor) {
+		barShape.setRoundRect(x, y, value * ACTION_BAR_WIDTH / maxValue,
+				ACTION_BAR_HEIGHT, 5, 5);
+		currentGraphics.setColor(fillColor);
+		currentGraphics.fill(barShape);
 
-		RoundRectangle2D hitpointsBar = new RoundRectangle2D.Double(x
-				- ACTION_BAR_WIDTH / 2, y + spriteHeight / 2
-				+ ACTION_BAR_HEIGHT, ACTION_BAR_WIDTH, ACTION_BAR_HEIGHT, 5, 5);
+		barShape.setRoundRect(x, y, ACTION_BAR_WIDTH, ACTION_BAR_HEIGHT, 5, 5);
 		currentGraphics.setColor(BAR_OUTLINE_COLOR);
-		currentGraphics.draw(hitpointsBar);
+		currentGraphics.draw(barShape);
 	}
 
 	protected void drawSelection(WormSprite sprite) {
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 		double spriteHeight = Math.max(sprite.getWidth(currentGraphics),
 				sprite.getHeight(currentGraphics));
 
@@ -251,8 +275,8 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 	}
 
 	protected void drawDirectionIndicator(WormSprite sprite) {
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 		double distance = Math.max(sprite.getWidth(currentGraphics),
 				sprite.getHeight(currentGraphics)) / 2;
 		distance += DIRECTION_INDICATOR_SIZE / 2;
@@ -272,8 +296,8 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 		if (sprite == null) {
 			return;
 		}
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 		double distance = Math.max(sprite.getWidth(graphics),
 				sprite.getHeight(graphics)) / 2;
 		distance += DIRECTION_INDICATOR_SIZE / 2;
@@ -337,8 +361,8 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 			return;
 		}
 
-		double x = sprite.getCenterX();
-		double y = sprite.getCenterY();
+		double x = sprite.getInterpolatedCenterX(alpha);
+		double y = sprite.getInterpolatedCenterY(alpha);
 		double hoffset = sprite.getWidth(currentGraphics);
 		double voffset = sprite.getHeight(currentGraphics);
 
@@ -365,8 +389,8 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 		final double stringWidth = bounds.getWidth();
 		final double stringHeight = bounds.getHeight();
 
-		x = sprite.getCenterX() - stringWidth / 2;
-		y = sprite.getCenterY() + voffset + TEXT_BAR_V_OFFSET;
+		x = sprite.getInterpolatedCenterX(alpha) - stringWidth / 2;
+		y = sprite.getInterpolatedCenterY(alpha) + voffset + TEXT_BAR_V_OFFSET;
 
 		RoundRectangle2D nameBarFill = new RoundRectangle2D.Double(x
 				- TEXT_BAR_H_MARGIN, y + TEXT_BAR_V_MARGIN, stringWidth + 2
@@ -381,6 +405,42 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 
 	}
 
+	protected static final Font METRICS_FONT = new Font(Font.MONOSPACED,
+			Font.PLAIN, 12);
+	protected static final Color METRICS_BACKGROUND = new Color(0xa0565656,
+			true);
+
+	/**
+	 * Paints the timings of the game in the top right corner of the screen
+	 */
+	public void paintMetrics(Graphics2D g, Metrics metrics) {
+		Font oldFont = g.getFont();
+		g.setFont(METRICS_FONT);
+		int lineHeight = g.getFontMetrics().getHeight();
+		int margin = 8;
+
+		List<String> lines = new ArrayList<String>();
+		int maxWidth = 0;
+		for (String name : metrics.getHistograms().keySet()) {
+			String line = metrics.format(name);
+			lines.add(line);
+			maxWidth = Math.max(maxWidth, g.getFontMetrics().stringWidth(line));
+		}
+
+		int width = maxWidth + 2 * margin;
+		int height = lines.size() * lineHeight + 2 * margin;
+		int left = getScreen().getScreenWidth() - width;
+		g.setColor(METRICS_BACKGROUND);
+		g.fillRect(left, 0, width, height);
+		g.setColor(Color.WHITE);
+		int y = margin + g.getFontMetrics().getAscent();
+		for (String line : lines) {
+			g.drawString(line, left + margin, y);
+			y += lineHeight;
+		}
+		g.setFont(oldFont);
+	}
+
 	public void paintInstructions(Graphics2D g, String message) {
 		int lineHeight = 25;
 		Font oldFont = g.getFont();
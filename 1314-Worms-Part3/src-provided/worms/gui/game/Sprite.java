@@ -8,6 +8,9 @@ public abstract class Sprite<T> {
 
 	private double x;
 	private double y;
+	private double previousX;
+	private double previousY;
+	private boolean hasLocation = false;
 	private final PlayGameScreen screen;
 
 	protected Sprite(PlayGameScreen screen) {
@@ -45,10 +48,24 @@ public abstract class Sprite<T> {
 	}
 
 	public synchronized void setCenterLocation(double x, double y) {
+		if (!hasLocation) {
+			this.previousX = x;
+			this.previousY = y;
+			hasLocation = true;
+		}
 		this.x = x;
 		this.y = y;
 	}
 
+	/**
+	 * Remember the current location as the location at the previous
+	 * simulation step
+	 */
+	public synchronized void saveLocation() {
+		this.previousX = x;
+		this.previousY = y;
+	}
+
 	public synchronized double getCenterX() {
 		return x;
 	}
@@ -57,6 +74,29 @@ public abstract class Sprite<T> {
 		return y;
 	}
 
+	/**
+	 * Center x coordinate (in pixels), interpolated between the previous and
+	 * the current simulation step by the given fraction of a step; only to be
+	 * used for painting
+	 */
+	public synchronized double getInterpolatedCenterX(double alpha) {
+		return interpolate(previousX, x, alpha);
+	}
+
+	/**
+	 * Center y coordinate (in pixels), interpolated between the previous and
+	 * the current simulation step by the given fraction of a step; only to be
+	 * used for painting
+	 */
+	public synchronized double getInterpolatedCenterY(double alpha) {
+		return interpolate(previousY, y, alpha);
+	}
+
+	private static double interpolate(double previous, double current,
+			double alpha) {
+		return (1.0 - alpha) * previous + alpha * current;
+	}
+
 	/**
 	 * Update attributes of this sprite with values from the object
 	 */
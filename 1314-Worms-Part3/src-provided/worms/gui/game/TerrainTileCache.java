@@ -0,0 +1,165 @@
+package worms.gui.game;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the terrain of a level in square tiles, at the resolution of the
+ * screen for a given zoom level.
+ *
+ * Only the tiles that are visible are rendered. Rendered tiles are kept, and
+ * the least recently used ones are dropped when the cache is full. All tiles
+ * are dropped when the size at which the world is displayed changes.
+ *
+ * Tiles are rendered from versions of the map that are repeatedly halved in
+ * size, so that zooming out on a large map does not cause aliasing.
+ */
+public class TerrainTileCache {
+
+	/**
+	 * Width and height of a tile (in screen pixels)
+	 */
+	public static final int TILE_SIZE = 256;
+
+	private static final int MAX_TILES = 256;
+
+	// the map image, followed by versions halved in size
+	private final List<BufferedImage> mipmaps = new ArrayList<BufferedImage>();
+
+	private double displayWidth;
+	private double displayHeight;
+
+	private final Map<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+			return size() > MAX_TILES;
+		}
+	};
+
+	public TerrainTileCache(BufferedImage mapImage) {
+		mipmaps.add(mapImage);
+	}
+
+	/**
+	 * Returns the smallest version of the map that is at least as large as the
+	 * given size
+	 */
+	private BufferedImage getSourceImage(double width, double height) {
+		BufferedImage source = mipmaps.get(0);
+		int level = 1;
+		while (source.getWidth() >= 2 * width
+				&& source.getHeight() >= 2 * height) {
+			if (level == mipmaps.size()) {
+				mipmaps.add(halve(source));
+			}
+			source = mipmaps.get(level);
+			level++;
+		}
+		return source;
+	}
+
+	private static BufferedImage halve(BufferedImage image) {
+		BufferedImage result = new BufferedImage(
+				Math.max(1, image.getWidth() / 2), Math.max(1,
+						image.getHeight() / 2), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = result.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(image, 0, 0, result.getWidth(), result.getHeight(), null);
+		g.dispose();
+		return result;
+	}
+
+	/**
+	 * Draws the visible part of the terrain.
+	 *
+	 * @param g
+	 *            Graphics object, in screen coordinates
+	 * @param left
+	 *            Screen x coordinate of the left side of the terrain
+	 * @param top
+	 *            Screen y coordinate of the top of the terrain
+	 * @param displayWidth
+	 *            Width of the terrain (in layout pixels, i.e., at zoom level
+	 *            0)
+	 * @param displayHeight
+	 *            Height of the terrain (in layout pixels)
+	 */
+	public synchronized void draw(Graphics2D g, double left, double top,
+			double displayWidth, double displayHeight, int zoomLevel,
+			double zoom, int screenWidth, int screenHeight) {
+		if (displayWidth != this.displayWidth
+				|| displayHeight != this.displayHeight) {
+			tiles.clear();
+			this.displayWidth = displayWidth;
+			this.displayHeight = displayHeight;
+		}
+		double width = displayWidth * zoom;
+		double height = displayHeight * zoom;
+		int nbColumns = (int) Math.ceil(width / TILE_SIZE);
+		int nbRows = (int) Math.ceil(height / TILE_SIZE);
+
+		int firstColumn = Math.max(0, (int) Math.floor(-left / TILE_SIZE));
+		int lastColumn = Math.min(nbColumns - 1,
+				(int) Math.floor((screenWidth - left) / TILE_SIZE));
+		int firstRow = Math.max(0, (int) Math.floor(-top / TILE_SIZE));
+		int lastRow = Math.min(nbRows - 1,
+				(int) Math.floor((screenHeight - top) / TILE_SIZE));
+
+		int x0 = (int) Math.round(left);
+		int y0 = (int) Math.round(top);
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				BufferedImage tile = getTile(zoomLevel, column, row, width,
+						height);
+				g.drawImage(tile, x0 + column * TILE_SIZE, y0 + row
+						* TILE_SIZE, null);
+			}
+		}
+	}
+
+	private BufferedImage getTile(int zoomLevel, int column, int row,
+			double width, double height) {
+		long key = ((long) zoomLevel << 48) | ((long) row << 24) | column;
+		BufferedImage tile = tiles.get(key);
+		if (tile == null) {
+			tile = renderTile(column, row, width, height);
+			tiles.put(key, tile);
+		}
+		return tile;
+	}
+
+	private BufferedImage renderTile(int column, int row, double width,
+			double height) {
+		int tileWidth = (int) Math.min(TILE_SIZE,
+				Math.ceil(width - column * TILE_SIZE));
+		int tileHeight = (int) Math.min(TILE_SIZE,
+				Math.ceil(height - row * TILE_SIZE));
+		BufferedImage tile = new BufferedImage(Math.max(1, tileWidth),
+				Math.max(1, tileHeight), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = tile.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING,
+				RenderingHints.VALUE_RENDER_QUALITY);
+		BufferedImage source = getSourceImage(width, height);
+		g.translate(-column * TILE_SIZE, -row * TILE_SIZE);
+		g.scale(width / source.getWidth(), height / source.getHeight());
+		g.drawImage(source, 0, 0, null);
+		g.dispose();
+		return tile;
+	}
+
+	public synchronized int getNbCachedTiles() {
+		return tiles.size();
+	}
+
+}
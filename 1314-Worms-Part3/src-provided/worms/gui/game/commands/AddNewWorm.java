@@ -40,6 +40,8 @@ public class AddNewWorm extends InstantaneousCommand {
 					if (parsed.isSuccess()) {
 						Program program = ((Success) parsed).getResult();
 						if (getFacade().isWellFormed(program)) {
+							program.setExecutionTimes(getScreen().getMetrics()
+									.getProgramExecution());
 							getFacade().addNewWorm(getWorld(), program);
 						} else {
 							cancelExecution();
@@ -14,6 +14,12 @@ public abstract class Command {
 	private boolean completed = false;
 	private boolean started = false;
 
+	/**
+	 * The flight recorder event of this command, while it is being executed
+	 * and the event is enabled
+	 */
+	private CommandEvent event;
+
 	protected Command(IFacade facade, PlayGameScreen screen) {
 		this.facade = facade;
 		this.screen = screen;
@@ -32,6 +38,7 @@ public abstract class Command {
 	}
 
 	public final void startExecution() {
+		event = CommandEvent.beginIfEnabled();
 		if (canStart()) {
 			started = true;			
 			doStartExecution();
@@ -44,17 +51,31 @@ public abstract class Command {
 	protected final void cancelExecution() {
 		cancelled = true;
 		afterExecutionCancelled();
+		finishEvent();
 	}
 
 	protected final void completeExecution() {
 		completed = true;
 		afterExecutionCompleted();
+		finishEvent();
+	}
+
+	/**
+	 * Records the event of this command, at most once
+	 */
+	private void finishEvent() {
+		if (event != null) {
+			event.finish(this);
+			event = null;
+		}
 	}
 
 	public final void update(double dt) {
 		if (!isTerminated()) {
+			long start = System.nanoTime();
 			elapsedTime += dt;
 			doUpdate(dt);
+			getScreen().getMetrics().getCommandUpdate().recordSince(start);
 			if (isTerminated()) {
 				getScreen().update();				
 				if (getFacade().isGameFinished(getWorld())) {
@@ -64,6 +85,18 @@ public abstract class Command {
 		}
 	}
 
+	/**
+	 * Finishes the execution of this command immediately, by updating it with
+	 * time steps that exceed the duration of any animation.
+	 */
+	public final void finish() {
+		while (!isTerminated()) {
+			update(FINISH_TIME_STEP);
+		}
+	}
+
+	private static final double FINISH_TIME_STEP = 1e6;
+
 	/**
 	 * Returns the total time that has elapsed while executing this command
 	 */
@@ -0,0 +1,68 @@
+package worms.gui.game.commands;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A flight recorder event spanning the execution of a command, from its
+ * start until it is completed or cancelled.
+ */
+@Name("worms.Command")
+@Label("Command")
+@Category({ "Worms", "GUI" })
+@Description("The execution of a command")
+@StackTrace(false)
+class CommandEvent extends Event {
+
+	@Label("Type")
+	private String type;
+
+	@Label("Started")
+	private boolean started;
+
+	@Label("Completed")
+	private boolean completed;
+
+	@Label("Cancelled")
+	private boolean cancelled;
+
+	@Label("Game Time")
+	@Description("Time that has elapsed in the game while executing the command")
+	@Timespan(Timespan.NANOSECONDS)
+	private long gameTime;
+
+	private static final EventType TYPE = EventType
+			.getEventType(CommandEvent.class);
+
+	/**
+	 * Returns a new event that has begun, or null if this type of event is
+	 * not enabled in any running recording
+	 */
+	static CommandEvent beginIfEnabled() {
+		if (!TYPE.isEnabled()) {
+			return null;
+		}
+		CommandEvent event = new CommandEvent();
+		event.begin();
+		return event;
+	}
+
+	void finish(Command command) {
+		end();
+		if (shouldCommit()) {
+			type = command.getClass().getSimpleName();
+			started = command.hasBeenStarted();
+			completed = command.isExecutionCompleted();
+			cancelled = command.isExecutionCancelled();
+			gameTime = (long) (command.getElapsedTime() * 1e9);
+			commit();
+		}
+	}
+
+}
@@ -5,12 +5,18 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 
 import worms.gui.InputMode;
+import worms.gui.game.Camera;
 import worms.gui.game.PlayGameScreen;
 import worms.gui.game.sprites.WormSprite;
 import worms.model.Worm;
 
 public class DefaultInputMode extends InputMode<PlayGameScreen> {
 
+	/**
+	 * Distance (in screen pixels) over which the camera moves per key press
+	 */
+	private static final double PAN_DISTANCE = 40;
+
 	/**
 	 * @param playGameScreen
 	 */
@@ -23,10 +29,13 @@ public class DefaultInputMode extends InputMode<PlayGameScreen> {
 	public void mouseClicked(MouseEvent e) {
 		if (getScreen().getGUI().getOptions().enableClickToSelect) {
 			Point point = e.getPoint();
+			Camera camera = getScreen().getCamera();
+			double x = camera.toLayoutX(point.getX());
+			double y = camera.toLayoutY(point.getY());
 			for (WormSprite sprite : getScreen().getSpritesOfType(
 					WormSprite.class)) {
 				Worm worm = sprite.getWorm();
-				if (sprite.hitTest(point.getX(), point.getY())) {
+				if (sprite.hitTest(x, y)) {
 					getScreen().selectWorm(worm);
 					return;
 				}
@@ -59,11 +68,21 @@ public class DefaultInputMode extends InputMode<PlayGameScreen> {
 		case 'N':
 			getScreen().renameWorm();
 			break;
+		case '+':
+		case '=':
+			zoom(true);
+			break;
+		case '-':
+			zoom(false);
+			break;
 		}
 	}
 
 	@Override
 	public void keyReleased(KeyEvent e) {
+		if (e.isShiftDown()) {
+			return;
+		}
 		switch (e.getKeyCode()) {
 		case KeyEvent.VK_UP:
 			getScreen().move();
@@ -74,11 +93,18 @@ public class DefaultInputMode extends InputMode<PlayGameScreen> {
 		case KeyEvent.VK_TAB:
 			getScreen().selectNextWorm();
 			break;
+		case KeyEvent.VK_F3:
+			getScreen().toggleMetrics();
+			break;
 		}
 	}
 
 	@Override
 	public void keyPressed(KeyEvent e) {
+		if (e.isShiftDown()) {
+			pan(e);
+			return;
+		}
 		switch (e.getKeyCode()) {
 		case KeyEvent.VK_LEFT:
 		case KeyEvent.VK_RIGHT:
@@ -88,4 +114,43 @@ public class DefaultInputMode extends InputMode<PlayGameScreen> {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Moves the camera with shift + arrow keys
+	 */
+	private void pan(KeyEvent e) {
+		Camera camera = getScreen().getCamera();
+		switch (e.getKeyCode()) {
+		case KeyEvent.VK_LEFT:
+			camera.pan(-PAN_DISTANCE, 0);
+			break;
+		case KeyEvent.VK_RIGHT:
+			camera.pan(PAN_DISTANCE, 0);
+			break;
+		case KeyEvent.VK_UP:
+			camera.pan(0, -PAN_DISTANCE);
+			break;
+		case KeyEvent.VK_DOWN:
+			camera.pan(0, PAN_DISTANCE);
+			break;
+		default:
+			return;
+		}
+		getScreen().repaint();
+	}
+
+	/**
+	 * Zooms in or out around the center of the screen
+	 */
+	private void zoom(boolean in) {
+		Camera camera = getScreen().getCamera();
+		double x = getScreen().getScreenWidth() / 2.0;
+		double y = getScreen().getScreenHeight() / 2.0;
+		if (in) {
+			camera.zoomIn(x, y);
+		} else {
+			camera.zoomOut(x, y);
+		}
+		getScreen().repaint();
+	}
+
+}
@@ -43,10 +43,12 @@ public class TurningMode extends InputMode<PlayGameScreen> {
 		WormSprite sprite = getScreen().getSelectedWormSprite();
 		if (sprite != null) {
 			double[] wormXY = sprite.getCenterLocation();
+			double wormX = getScreen().getCamera().toScreenX(wormXY[0]);
+			double wormY = getScreen().getCamera().toScreenY(wormXY[1]);
 			double currentOrientation = sprite.getOrientation();
 			this.angle = Math.PI
 					- currentOrientation
-					+ Math.atan2((e.getY() - wormXY[1]), (wormXY[0] - e.getX()));
+					+ Math.atan2((e.getY() - wormY), (wormX - e.getX()));
 		}
 	}
 
@@ -3,6 +3,7 @@ package worms.gui.game.sprites;
 import worms.gui.game.ImageSprite;
 import worms.gui.game.PlayGameScreen;
 import worms.model.Food;
+import worms.model.WorldSnapshot.ObjectSnapshot;
 
 public class FoodSprite extends ImageSprite<Food> {
 
@@ -48,8 +49,12 @@ public class FoodSprite extends ImageSprite<Food> {
 	
 	@Override
 	public synchronized void update() {
-		setRadius(getFacade().getRadius(getFood()));
-		setCenterLocation(getScreen().getScreenX(getFacade().getX(getFood())), getScreen().getScreenY(getFacade().getY(getFood())));
+		ObjectSnapshot state = getScreen().getSnapshot().getSnapshotOf(getFood());
+		if (state == null) {
+			return;
+		}
+		setRadius(state.getRadius());
+		setCenterLocation(getScreen().getScreenX(state.getX()), getScreen().getScreenY(state.getY()));
 	}
 
 	@Override
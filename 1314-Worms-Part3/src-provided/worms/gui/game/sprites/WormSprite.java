@@ -6,6 +6,7 @@ import worms.gui.game.ImageSprite;
 import worms.gui.game.PlayGameScreen;
 import worms.model.ModelException;
 import worms.model.Worm;
+import worms.model.WorldSnapshot.ObjectSnapshot;
 
 public class WormSprite extends ImageSprite<Worm> {
 
@@ -20,6 +21,7 @@ public class WormSprite extends ImageSprite<Worm> {
 	private double orientation;
 	private String name;
 	private String teamName;
+	private String label;
 	private boolean atImpassableTerrain;
 	private int actionPoints;
 	private int maxActionPoints;
@@ -97,33 +99,36 @@ public class WormSprite extends ImageSprite<Worm> {
 
 	@Override
 	public synchronized void update() {
+		ObjectSnapshot state = getScreen().getSnapshot().getSnapshotOf(getWorm());
+		if (state == null) {
+			return;
+		}
 		if (isJumping || isMoving) {
 			// don't update the location here, because it may differ from the
 			// location in the model
 		} else {
-			setCenterLocation(
-					getScreen().getScreenX(getFacade().getX(getWorm())),
-					getScreen().getScreenY(getFacade().getY(worm)));
+			setCenterLocation(getScreen().getScreenX(state.getX()),
+					getScreen().getScreenY(state.getY()));
 		}
-		this.actualX = getFacade().getX(getWorm());
-		this.actualY = getFacade().getY(getWorm());
-		setRadius(getFacade().getRadius(getWorm()));
-		setDirection(getFacade().getOrientation(getWorm()));
-		setSelectedWeapon(getFacade().getSelectedWeapon(getWorm()));
+		this.actualX = state.getX();
+		this.actualY = state.getY();
+		setRadius(state.getRadius());
+		setDirection(state.getDirection());
+		setSelectedWeapon(state.getSelectedWeapon());
 		updateJumpTime();
-		setName(getFacade().getName(getWorm()));
+		setName(state.getName());
 		try {
 			setTeamName(getFacade().getTeamName(getWorm()));
 		} catch (ModelException e) {
 			setTeamName(null);
 		}
 		this.atImpassableTerrain = getFacade().isImpassable(
-				getScreen().getWorld(), getFacade().getX(getWorm()),
-				getFacade().getY(getWorm()), getFacade().getRadius(getWorm()));
-		this.actionPoints = getFacade().getActionPoints(getWorm());
-		this.maxActionPoints = getFacade().getMaxActionPoints(getWorm());
-		this.hitPoints = getFacade().getHitPoints(getWorm());
-		this.maxHitPoints = getFacade().getMaxHitPoints(getWorm());
+				getScreen().getWorld(), state.getX(), state.getY(),
+				state.getRadius());
+		this.actionPoints = state.getActionPoints();
+		this.maxActionPoints = state.getMaxPoints();
+		this.hitPoints = state.getHitPoints();
+		this.maxHitPoints = state.getMaxPoints();
 	}
 
 	public void setIsJumping(boolean isJumping) {
@@ -174,7 +179,29 @@ public class WormSprite extends ImageSprite<Worm> {
 	}
 
 	private void setName(String name) {
-		this.name = name;
+		if (!equal(name, this.name)) {
+			this.name = name;
+			this.label = null;
+		}
+	}
+
+	private static boolean equal(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * Text to show above the worm: its name, followed by its team name.
+	 * The same string is returned as long as neither name changes.
+	 */
+	public synchronized String getLabel() {
+		if (label == null) {
+			String result = (name == null) ? "(null)" : name;
+			if (teamName != null) {
+				result += " (" + teamName + ")";
+			}
+			label = result;
+		}
+		return label;
 	}
 
 	public synchronized String getTeamName() {
@@ -182,7 +209,10 @@ public class WormSprite extends ImageSprite<Worm> {
 	}
 
 	private void setTeamName(String teamName) {
-		this.teamName = teamName;
+		if (!equal(teamName, this.teamName)) {
+			this.teamName = teamName;
+			this.label = null;
+		}
 	}
 
 	public synchronized boolean isAtImpassableTerrain() {
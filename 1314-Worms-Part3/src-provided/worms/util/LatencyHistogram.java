@@ -0,0 +1,181 @@
+package worms.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations (in nanoseconds) over a rolling time window.
+ *
+ * Durations are counted in buckets whose width grows with their magnitude:
+ * every power of two is split in 32 buckets, so percentiles are reported
+ * with a relative error of about 3%, for any magnitude. Recording a duration
+ * only increments a few counters, and can be done from any thread.
+ *
+ * Statistics cover the current window and the previous one, so they always
+ * span at least one full window.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int NB_BUCKETS = (63 - SUB_BUCKET_BITS + 2)
+			* SUB_BUCKET_COUNT;
+
+	private final long windowNanos;
+
+	private volatile Window current;
+	private volatile Window previous;
+
+	/**
+	 * Creates a histogram over a rolling window of the given duration (in
+	 * nanoseconds)
+	 */
+	public LatencyHistogram(long windowNanos) {
+		if (windowNanos <= 0) {
+			throw new IllegalArgumentException("Window must be positive");
+		}
+		this.windowNanos = windowNanos;
+		long now = System.nanoTime();
+		this.current = new Window(now);
+		this.previous = new Window(now);
+	}
+
+	private static class Window {
+		private final long start;
+		private final AtomicLongArray counts = new AtomicLongArray(NB_BUCKETS);
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+
+		private Window(long start) {
+			this.start = start;
+		}
+	}
+
+	/**
+	 * Index of the bucket that counts the given (non-negative) value
+	 */
+	static int getBucketIndex(long value) {
+		if (value < 2 * SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		long mantissa = value >>> (exponent - SUB_BUCKET_BITS);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT
+				+ (int) mantissa - SUB_BUCKET_COUNT;
+	}
+
+	/**
+	 * Largest value that is counted in the bucket with the given index
+	 */
+	static long getBucketUpperBound(int index) {
+		if (index < 2 * SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		long mantissa = SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT;
+		long shift = exponent - SUB_BUCKET_BITS;
+		if (mantissa + 1 > (Long.MAX_VALUE >>> shift)) {
+			return Long.MAX_VALUE;
+		}
+		return ((mantissa + 1) << shift) - 1;
+	}
+
+	/**
+	 * Records the given duration (in nanoseconds)
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		Window window = getCurrentWindow();
+		window.counts.incrementAndGet(getBucketIndex(nanos));
+		window.count.incrementAndGet();
+		long max = window.max.get();
+		while (nanos > max && !window.max.compareAndSet(max, nanos)) {
+			max = window.max.get();
+		}
+	}
+
+	/**
+	 * Records the time that has elapsed since the given start time, obtained
+	 * from System.nanoTime()
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	private Window getCurrentWindow() {
+		Window window = current;
+		long now = System.nanoTime();
+		if (now - window.start >= windowNanos) {
+			window = rotate(now);
+		}
+		return window;
+	}
+
+	private synchronized Window rotate(long now) {
+		Window window = current;
+		if (now - window.start >= windowNanos) {
+			// the previous window is dropped if nothing was recorded for a
+			// whole window
+			previous = (now - window.start >= 2 * windowNanos) ? new Window(now)
+					: window;
+			window = new Window(now);
+			current = window;
+		}
+		return window;
+	}
+
+	/**
+	 * Number of recorded durations in the window
+	 */
+	public long getCount() {
+		Window window = getCurrentWindow();
+		return window.count.get() + previous.count.get();
+	}
+
+	/**
+	 * Largest recorded duration in the window, or 0 if there is none
+	 */
+	public long getMax() {
+		Window window = getCurrentWindow();
+		return Math.max(window.max.get(), previous.max.get());
+	}
+
+	/**
+	 * Duration below which the given percentage of the recorded durations in
+	 * the window lies, or 0 if there are none
+	 */
+	public long getPercentile(double percentage) {
+		if (percentage < 0 || percentage > 100) {
+			throw new IllegalArgumentException("Not a percentage: "
+					+ percentage);
+		}
+		Window window = getCurrentWindow();
+		Window previous = this.previous;
+		long total = window.count.get() + previous.count.get();
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentage / 100 * total));
+		long seen = 0;
+		long max = Math.max(window.max.get(), previous.max.get());
+		for (int i = 0; i < NB_BUCKETS; i++) {
+			seen += window.counts.get(i) + previous.counts.get(i);
+			if (seen >= rank) {
+				return Math.min(getBucketUpperBound(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Drops all recorded durations
+	 */
+	public synchronized void reset() {
+		long now = System.nanoTime();
+		current = new Window(now);
+		previous = new Window(now);
+	}
+
+}
@@ -4,6 +4,10 @@ package worms.exceptions;
 /**
  * A class for signaling when a program is interrupted.
  * 
+ * Interrupt exceptions are thrown each time an action of a program fails, which happens
+ * at least once per turn. They are therefore preallocated by the statements that throw them,
+ * and do not record a stack trace.
+ * 
  * @author   Delphine Vandamme 
  */
 public class InterruptException extends RuntimeException {
@@ -13,6 +17,16 @@ public class InterruptException extends RuntimeException {
 		this.column = column;
 	}
 	
+	/**
+	 * Does not fill in the stack trace of this exception.
+	 * 
+	 * @return | result == this
+	 */
+	@Override
+	public Throwable fillInStackTrace() {
+		return this;
+	}
+	
 	public int getColumn() {
 		// TODO Auto-generated method stub
 		return column;
@@ -0,0 +1,282 @@
+package worms.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A class of indices of the positions of a passable map that are adjacent to impassable terrain,
+ *   for circles with a radius in a given bucket.
+ *
+ *   Whether a circle is adjacent only depends on the pixels covered by the bounding boxes of the circle
+ *   and of the circle with 1.1 times its radius (see World.isAdjacent(double, double, double)). It can
+ *   only change where a side of these boxes crosses a line of the pixel grid, so each pixel is divided
+ *   in a few cells in which adjacency does not change, at the same offsets for every pixel. The contour
+ *   of a bucket is the set of cells that are adjacent for the radius of the bucket.
+ *
+ *   A contour is computed the first time it is asked for, from a summed-area table of the impassable
+ *   pixels of the map, so that each cell is classified in constant time. Contours are stored as arrays
+ *   of cell indices, and are never changed once computed, so that they can be shared between threads.
+ *   Only the contours of the most recently used buckets are kept.
+ *   The same table answers single adjacency and impassability checks in constant time.
+ *
+ * @author Delphine Vandamme
+ *
+ */
+final class AdjacencyIndex {
+
+	/**
+	 * Initialize this new index for the given passable map, covering a world with the given width and height.
+	 */
+	AdjacencyIndex(boolean[][] map, double width, double height) {
+		this.map = map;
+		this.width = width;
+		this.height = height;
+		this.nbRows = map.length;
+		this.nbColumns = map[0].length;
+	}
+
+	private final boolean[][] map;
+	private final double width;
+	private final double height;
+	private final int nbRows;
+	private final int nbColumns;
+
+	/**
+	 * The width (in meter) of a bucket of radii.
+	 */
+	public static final double RADIUS_BUCKET = 0.01;
+
+	/**
+	 * The maximal number of contours that an index keeps.
+	 */
+	public static final int MAX_CONTOURS = 4;
+
+	/**
+	 * The factors of the radius at which the sides of the bounding boxes checked for adjacency lie.
+	 */
+	private static final double[] RADIUS_FACTORS = { -1.1, -1, 1, 1.1 };
+
+	/**
+	 * A class of contours of a map for a single bucket of radii.
+	 */
+	final class Contour {
+
+		private Contour(int[] cells, double[] offsetsX, double[] offsetsY) {
+			this.cells = cells;
+			this.offsetsX = offsetsX;
+			this.offsetsY = offsetsY;
+		}
+
+		/**
+		 * Variable registering the indices of the cells of this contour. The cell with offsets i and j
+		 *   in the pixel at the given row and column has index
+		 *   ((row * number of columns + column) * offsetsX.length + i) * offsetsY.length + j.
+		 */
+		private final int[] cells;
+
+		/**
+		 * Variables registering the centers of the cells in a pixel, as fractions of the size of a pixel.
+		 */
+		private final double[] offsetsX, offsetsY;
+
+		/**
+		 * Returns the number of cells in this contour.
+		 */
+		int size() {
+			return cells.length;
+		}
+
+		/**
+		 * Returns the x-coordinate of the center of the cell of this contour with the given number.
+		 */
+		double getX(int number) {
+			int cell = cells[number] / offsetsY.length;
+			return getCellX(cell / offsetsX.length, offsetsX[cell % offsetsX.length]);
+		}
+
+		/**
+		 * Returns the y-coordinate of the center of the cell of this contour with the given number.
+		 */
+		double getY(int number) {
+			int cell = cells[number];
+			return getCellY(cell / offsetsY.length / offsetsX.length, offsetsY[cell % offsetsY.length]);
+		}
+
+	}
+
+	/**
+	 * Returns the contour for the bucket of the given radius.
+	 */
+	Contour getContour(double radius) {
+		Long bucket = Math.round(radius / RADIUS_BUCKET);
+		Contour contour;
+		synchronized (contours) {
+			contour = contours.get(bucket);
+		}
+		if (contour == null) {
+			// computed outside the lock, since computing a contour takes long
+			contour = computeContour(bucket * RADIUS_BUCKET);
+			synchronized (contours) {
+				Contour other = contours.get(bucket);
+				if (other != null)
+					contour = other;
+				else
+					contours.put(bucket, contour);
+			}
+		}
+		return contour;
+	}
+
+	/**
+	 * Map registering the contours of the most recently used buckets, in order of access.
+	 */
+	private final Map<Long, Contour> contours = new LinkedHashMap<Long, Contour>(2 * MAX_CONTOURS, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Contour> eldest) {
+			return size() > MAX_CONTOURS;
+		}
+	};
+
+	private double getCellX(int pixel, double offset) {
+		return ((pixel % nbColumns) + offset) * (width / nbColumns);
+	}
+
+	private double getCellY(int pixel, double offset) {
+		return (nbRows - (pixel / nbColumns) - 1 + offset) * (height / nbRows);
+	}
+
+	/**
+	 * Computes the contour for the given radius.
+	 *   Pixels in which no cell can be adjacent are skipped, by checking a single larger and a single
+	 *   smaller box around their center.
+	 */
+	private Contour computeContour(double radius) {
+		int[] sums = getImpassableSums();
+		double pixelWidth = width / nbColumns; double pixelHeight = height / nbRows;
+		double[] offsetsX = getCellOffsets(radius, pixelWidth);
+		double[] offsetsY = getCellOffsets(radius, pixelHeight);
+		double margin = Math.max(pixelWidth, pixelHeight);
+		int[] cells = new int[64];
+		int size = 0;
+		for (int pixel = 0; pixel < nbRows * nbColumns; pixel++) {
+			double x = getCellX(pixel, 0.5); double y = getCellY(pixel, 0.5);
+			if ( (countImpassable(sums, x, y, 1.1 * radius + margin) == 0)
+					|| ( (radius > margin) && (countImpassable(sums, x, y, radius - margin) > 0) ) )
+				continue;
+			for (int i = 0; i < offsetsX.length; i++) {
+				for (int j = 0; j < offsetsY.length; j++) {
+					x = getCellX(pixel, offsetsX[i]); y = getCellY(pixel, offsetsY[j]);
+					if ( isAdjacent(sums, x, y, radius) ) {
+						if (size == cells.length)
+							cells = Arrays.copyOf(cells, 2 * size);
+						cells[size++] = (pixel * offsetsX.length + i) * offsetsY.length + j;
+					}
+				}
+			}
+		}
+		return new Contour(Arrays.copyOf(cells, size), offsetsX, offsetsY);
+	}
+
+	/**
+	 * Returns the centers of the cells in a pixel along an axis with the given pixel size, as fractions
+	 * of the size of a pixel.
+	 */
+	private static double[] getCellOffsets(double radius, double pixelSize) {
+		double[] bounds = new double[RADIUS_FACTORS.length + 2];
+		for (int i = 0; i < RADIUS_FACTORS.length; i++) {
+			double bound = - RADIUS_FACTORS[i] * radius / pixelSize;
+			bounds[i] = bound - Math.floor(bound);
+		}
+		bounds[RADIUS_FACTORS.length + 1] = 1;
+		Arrays.sort(bounds);
+		double[] offsets = new double[bounds.length - 1];
+		int size = 0;
+		for (int i = 1; i < bounds.length; i++) {
+			if (bounds[i] - bounds[i - 1] > 1e-9)
+				offsets[size++] = (bounds[i - 1] + bounds[i]) / 2;
+		}
+		return Arrays.copyOf(offsets, size);
+	}
+
+	/**
+	 * Checks whether the given circle is passable and adjacent to impassable terrain, in the same way as
+	 * World.isAdjacent(double, double, double), but in constant time.
+	 *   The check is counted as a single terrain query.
+	 */
+	boolean isAdjacent(double x, double y, double radius) {
+		ModelStatistics.countTerrainQuery();
+		return isAdjacent(getImpassableSums(), x, y, radius);
+	}
+
+	private boolean isAdjacent(int[] sums, double x, double y, double radius) {
+		return isInWorld(x, y, 1.1 * radius) && (countImpassable(sums, x, y, radius) == 0)
+				&& (countImpassable(sums, x, y, 1.1 * radius) > 0);
+	}
+
+	/**
+	 * Checks whether the given circle is impassable, in the same way as
+	 * World.isImpassable(double, double, double), but in constant time.
+	 *   The check is counted as a single terrain query.
+	 */
+	boolean isImpassable(double x, double y, double radius) {
+		ModelStatistics.countTerrainQuery();
+		return !isInWorld(x, y, radius) || (countImpassable(getImpassableSums(), x, y, radius) > 0);
+	}
+
+	/**
+	 * Checks whether the given circle lies strictly inside the world of this index.
+	 */
+	private boolean isInWorld(double x, double y, double radius) {
+		return (y - radius > 0) && (y + radius < height) && (x - radius > 0) && (x + radius < width);
+	}
+
+	/**
+	 * Returns the number of impassable pixels that the bounding box of the given circle covers, in the same
+	 * way as World.isImpassable(double, double, double), or 1 if the box does not lie on the map.
+	 */
+	private int countImpassable(int[] sums, double x, double y, double radius) {
+		double pixelWidth = width / nbColumns; double pixelHeight = height / nbRows;
+		int row1 = nbRows - ((int) Math.floor((y - radius) / pixelHeight)) - 1;
+		int row2 = nbRows - ((int) Math.ceil((y + radius) / pixelHeight));
+		int col1 = ((int) Math.floor((x - radius) / pixelWidth));
+		int col2 = ((int) Math.ceil((x + radius) / pixelWidth)) - 1;
+		if ( (row2 < 0) || (row1 >= nbRows) || (col1 < 0) || (col2 >= nbColumns) )
+			return 1;
+		if ( (row2 > row1) || (col1 > col2) )
+			return 0;
+		int stride = nbColumns + 1;
+		return sums[(row1 + 1) * stride + (col2 + 1)] - sums[row2 * stride + (col2 + 1)]
+			 - sums[(row1 + 1) * stride + col1] + sums[row2 * stride + col1];
+	}
+
+	/**
+	 * Returns the summed-area table of the impassable pixels of the map.
+	 *   Element (r, c) of the table, at index r * (number of columns + 1) + c, is the number of
+	 *   impassable pixels in the rows before r and the columns before c.
+	 */
+	private int[] getImpassableSums() {
+		int[] sums = this.impassableSums;
+		if (sums == null) {
+			int stride = nbColumns + 1;
+			sums = new int[(nbRows + 1) * stride];
+			for (int r = 0; r < nbRows; r++) {
+				int rowSum = 0;
+				for (int c = 0; c < nbColumns; c++) {
+					if (! map[r][c])
+						rowSum++;
+					sums[(r + 1) * stride + (c + 1)] = sums[r * stride + (c + 1)] + rowSum;
+				}
+			}
+			this.impassableSums = sums;
+		}
+		return sums;
+	}
+
+	/**
+	 * Variable registering the summed-area table of the impassable pixels, once it is computed.
+	 *   Computing it twice on different threads gives the same table, so it is only published, not locked.
+	 */
+	private volatile int[] impassableSums;
+
+}
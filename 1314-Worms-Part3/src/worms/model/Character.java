@@ -101,6 +101,8 @@ public abstract class Character extends MobileGameObject {
 	 *		   The new name for this character.
 	 * @post   The name of this new character is equal to the given name.
      *       | new.getName() == name
+	 * @effect | registerModification()
+	 * @effect | fireEvent(WorldEvent.Type.STATE_CHANGED)
 	 * @throws IllegalNameException
 	 *         The name is against the predefined rules.
 	 *        | ! isValidName(name)
@@ -111,6 +113,8 @@ public abstract class Character extends MobileGameObject {
 		if (! isValidName(name))
 			throw new IllegalNameException(name);
 		this.name = name;
+		registerModification();
+		fireEvent(WorldEvent.Type.STATE_CHANGED);
 	}
 	
 	/**
@@ -178,17 +182,34 @@ public abstract class Character extends MobileGameObject {
 	 *         the next turn in the world is started.
 	 * 		  | if (actionPoints < this.MINPOINTS)
 	 *        |     then getWorld().startNextTurn();    
+	 * @effect | if (new.getActionPoints() != getActionPoints()) then fireEvent(WorldEvent.Type.STATE_CHANGED)
 	 */
 	public void setActionPoints(int actionPoints) {
 		if (actionPoints > getMaxPoints())
-			this.actionPoints = getMaxPoints();
+			changeActionPoints(getMaxPoints());
 		else if (actionPoints <= MINPOINTS) {
-			this.actionPoints = MINPOINTS;
+			changeActionPoints(MINPOINTS);
 			if (getWorld().getCurrentPlayer() == this && !getWorld().isGameFinished())
 				getWorld().startNextTurn();
 		}
 		else 
+			changeActionPoints(actionPoints);
+	}
+	
+	/**
+	 * Sets the number of action points of this character to the given number, and registers the change 
+	 * with its world and notifies its listeners if this number has changed.
+	 * 
+	 * @post   | new.getActionPoints() == actionPoints
+	 * @effect | if (actionPoints != getActionPoints()) then registerModification()
+	 * @effect | if (actionPoints != getActionPoints()) then fireEvent(WorldEvent.Type.STATE_CHANGED)
+	 */
+	private void changeActionPoints(int actionPoints) {
+		if (actionPoints != this.actionPoints) {
 			this.actionPoints = actionPoints;
+			registerModification();
+			fireEvent(WorldEvent.Type.STATE_CHANGED);
+		}
 	}
 	
 	/**
@@ -345,8 +366,22 @@ public abstract class Character extends MobileGameObject {
 			               || !getWorld().isInWorld(position, getRadius() )
 	 */ 
 	public boolean canFall(Position position) {
-		return (!getWorld().isAdjacent(position, getRadius()) && !getWorld().isImpassable(position, getRadius()))
-			   || !getWorld().isInWorld(position, getRadius()) ;
+		return canFall(position.getX(), position.getY());
+	}
+	
+	/**
+	 * Returns whether or not a character can fall down from the given coordinates.
+	 * 
+	 * @param  x
+	 *         The x-coordinate to check.
+	 * @param  y
+	 *         The y-coordinate to check.
+	 * @return result == ( !getWorld().isAdjacent(x, y, getRadius()) && !getWorld().isImpassable(x, y, getRadius()))
+			               || !getWorld().isInWorld(x, y, getRadius() )
+	 */ 
+	public boolean canFall(double x, double y) {
+		return (!getWorld().isAdjacent(x, y, getRadius()) && !getWorld().isImpassable(x, y, getRadius()))
+			   || !getWorld().isInWorld(x, y, getRadius()) ;
 	}
 	
 	/**
@@ -363,17 +398,19 @@ public abstract class Character extends MobileGameObject {
 			throw new IllegalStateException("Cannot fall!");
 		double step = getRadius()/10;
 		Position oldPos = new Position(getPosition());
-		Position tempPos = oldPos;
-		while ( canFall(tempPos) ) {
-			if ( !getWorld().isInWorld(tempPos, getRadius()) ) {
-				setPosition(tempPos); 
+		double x = oldPos.getX(); double y = oldPos.getY();
+		y = y - getWorld().getNbFreeFallSteps(x, y, getRadius(), step) * step;
+		while ( canFall(x, y) ) {
+			if ( !getWorld().isInWorld(x, y, getRadius()) ) {
+				setPosition(new Position(x, y)); 
 				terminate();
 				if (getWorld().getCurrentPlayer() == null && getWorld().hasStarted() && !getWorld().isGameFinished())
 					getWorld().startNextTurn();
 				return;
 			}
-			tempPos = tempPos.addToY(-step);
+			y = y - step;
 		}
+		Position tempPos = new Position(x, y);
 		setPosition(tempPos); 
 		eat();
 		takeFallDamage(oldPos.getDistanceTo(tempPos));
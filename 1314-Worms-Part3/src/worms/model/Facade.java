@@ -512,7 +512,7 @@ public class Facade implements IFacade {
 	 * (For single-student groups that do not implement food, this method should have no effect)
 	 */
 	public void addNewFood(World world) {
-		Position position = world.getRandomPosition(0.2);
+		Position position = world.getRandomContourPosition(0.2);
 		if (position != null)
 			createFood(world, position.getX(), position.getY());
 	}
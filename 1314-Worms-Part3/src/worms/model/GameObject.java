@@ -79,10 +79,14 @@ public abstract class GameObject {
 	 * 
 	 * @post  The position of this new game object is equal to a new Position(x,y), given x and y.
      *      | new.getPosition() = new Position(x,y)
+     * @effect | registerModification()
+     * @effect | fireEvent(WorldEvent.Type.MOVED)
 	 */
 	@Raw
 	public void setPosition(Position position) {
 		this.position = position;
+		registerModification();
+		fireEvent(WorldEvent.Type.MOVED);
 	}
 	
 	/**
@@ -120,6 +124,8 @@ public abstract class GameObject {
 	 * @post   If the given radius is a valid radius for this game object, 
 	 *         the radius of this game object is equal to the given radius.
      *       | new.getRadius() == radius
+     * @effect | registerModification()
+     * @effect | fireEvent(WorldEvent.Type.RADIUS_CHANGED)
      * @throws IllegalRadiusException
      * 		   The given radius is not a valid radius for any game object.  
      * 		 | ! isValidRadius(radius)    
@@ -130,6 +136,8 @@ public abstract class GameObject {
 		if (! canHaveAsRadius(radius))
 			throw new IllegalRadiusException(radius,this);
 		this.radius = radius;
+		registerModification();
+		fireEvent(WorldEvent.Type.RADIUS_CHANGED);
 	}
 	
 	/**
@@ -257,5 +265,27 @@ public abstract class GameObject {
 	 * Variable registering the world to which this game object is attached.
 	 */
 	private World world = null;
+	
+	/**
+	 * Registers a change of the state of this game object with the world it is attached to.
+	 * 
+	 * @effect | if (getWorld() != null) then getWorld().registerModification()
+	 */
+	@Raw
+	protected void registerModification() {
+		if (getWorld() != null)
+			getWorld().registerModification();
+	}
+	
+	/**
+	 * Notifies the listeners of the world this game object is attached to of a change of the given type.
+	 * 
+	 * @effect | if (getWorld() != null) then getWorld().fireEvent(type, this)
+	 */
+	@Raw
+	protected void fireEvent(WorldEvent.Type type) {
+		if (getWorld() != null)
+			getWorld().fireEvent(type, this);
+	}
 
 }
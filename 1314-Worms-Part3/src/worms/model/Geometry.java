@@ -0,0 +1,50 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of geometric computations on primitive coordinates.
+ *   The search loops of worlds and the trajectories of jumps use these computations,
+ *   so that they need not create a position for each point they visit.
+ * 
+ * @author Delphine Vandamme
+ *
+ */
+final class Geometry {
+
+	private Geometry() {
+	}
+
+	/**
+	 * Returns the distance between the given points.
+	 * 
+	 * @return result == Math.sqrt( (x1 - x2) * (x1 - x2) + (y1 - y2) * (y1 - y2) )
+	 */
+	@Immutable
+	static double distance(double x1, double y1, double x2, double y2) {
+		double dx = x1 - x2;
+		double dy = y1 - y2;
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/**
+	 * Returns the x-coordinate, at the given time after launch, of a ballistic trajectory.
+	 * 
+	 * @return result == x + velocityX * time
+	 */
+	@Immutable
+	static double ballisticX(double x, double velocityX, double time) {
+		return x + (velocityX * time);
+	}
+
+	/**
+	 * Returns the y-coordinate, at the given time after launch, of a ballistic trajectory.
+	 * 
+	 * @return result == y + velocityY * time - 0.5 * World.ACCELERATION * Math.pow(time, 2)
+	 */
+	@Immutable
+	static double ballisticY(double y, double velocityY, double time) {
+		return y + (velocityY * time) - 0.5 * World.ACCELERATION * Math.pow(time, 2);
+	}
+
+}
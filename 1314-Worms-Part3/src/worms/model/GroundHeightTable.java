@@ -0,0 +1,80 @@
+package worms.model;
+
+import java.util.Arrays;
+
+/**
+ * A class of tables of the impassable terrain in each column of pixels of a passable map.
+ *   For each column, the table registers the runs of impassable pixels, as the rows (counted from
+ *   the bottom of the map) at which they start and end, sorted from bottom to top. The highest
+ *   impassable pixel below a given row is then found by a binary search over these runs.
+ *
+ *   Tables are never changed once built, so that they can be shared between threads.
+ *
+ * @author Delphine Vandamme
+ *
+ */
+final class GroundHeightTable {
+
+	/**
+	 * Initialize this new table for the given passable map.
+	 */
+	GroundHeightTable(boolean[][] map) {
+		int nbRows = map.length; int nbColumns = map[0].length;
+		int[] bottoms = new int[64]; int[] tops = new int[64];
+		int size = 0;
+		this.firstRuns = new int[nbColumns + 1];
+		for (int c = 0; c < nbColumns; c++) {
+			firstRuns[c] = size;
+			for (int row = 0; row < nbRows; row++) {
+				if (! map[nbRows - 1 - row][c]) {
+					if ( (row == 0) || map[nbRows - row][c] ) {
+						if (size == bottoms.length) {
+							bottoms = Arrays.copyOf(bottoms, 2 * size);
+							tops = Arrays.copyOf(tops, 2 * size);
+						}
+						bottoms[size] = row;
+						size++;
+					}
+					tops[size - 1] = row;
+				}
+			}
+		}
+		firstRuns[nbColumns] = size;
+		this.bottoms = Arrays.copyOf(bottoms, size);
+		this.tops = Arrays.copyOf(tops, size);
+	}
+
+	/**
+	 * Variable registering, for each column, the index of its first run in bottoms and tops;
+	 *   the runs of column c end before firstRuns[c + 1].
+	 */
+	private final int[] firstRuns;
+
+	/**
+	 * Variables registering the lowest and highest row of each run of impassable pixels.
+	 */
+	private final int[] bottoms, tops;
+
+	/**
+	 * Returns the highest row below the given row that holds an impassable pixel in one of the given
+	 * columns, or -1 if there is no such row.
+	 *
+	 * @param  column1
+	 *         The leftmost column to check.
+	 * @param  column2
+	 *         The rightmost column to check.
+	 * @param  limit
+	 *         The row (counted from the bottom of the map) above all rows to check.
+	 */
+	int getHighestImpassableRow(int column1, int column2, int limit) {
+		int result = -1;
+		for (int c = column1; c <= column2; c++) {
+			int index = Arrays.binarySearch(bottoms, firstRuns[c], firstRuns[c + 1], limit);
+			int run = (index >= 0 ? index : -index - 1) - 1;
+			if (run >= firstRuns[c])
+				result = Math.max(result, Math.min(tops[run], limit - 1));
+		}
+		return result;
+	}
+
+}
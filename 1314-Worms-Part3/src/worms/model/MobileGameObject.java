@@ -105,11 +105,15 @@ public abstract class MobileGameObject extends GameObject {
      * @post   The direction of this mobile game object is equal to the given
      * 		   direction.
      *       | new.getDirection() == direction
+     * @effect | registerModification()
+     * @effect | fireEvent(WorldEvent.Type.MOVED)
 	 */
     @Raw
 	public void setDirection(double direction) {
     	assert isValidDirection(direction);
 		this.direction = direction;
+		registerModification();
+		fireEvent(WorldEvent.Type.MOVED);
 	}
     
     /**
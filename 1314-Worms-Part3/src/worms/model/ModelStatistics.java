@@ -0,0 +1,280 @@
+package worms.model;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class collecting statistics of all worlds and programs in this virtual machine,
+ *   published as the management bean {@value #OBJECT_NAME} as soon as the first world is created.
+ *   
+ *   Counters are striped, so that worlds and programs on different threads do not contend
+ *   for them, and counting only costs a few nanoseconds. Programs count the steps of a turn
+ *   themselves, and only report them at the end of the turn.
+ * 
+ * @author Delphine Vandamme
+ *
+ */
+public final class ModelStatistics implements ModelStatisticsMXBean {
+
+	/**
+	 * The name under which the statistics are registered in the platform management bean server.
+	 */
+	public static final String OBJECT_NAME = "worms.model:type=ModelStatistics";
+
+	/**
+	 * The minimal interval (in nanoseconds) over which rates are averaged.
+	 */
+	public static final long RATE_INTERVAL = 1000000000L;
+
+	private ModelStatistics() {
+	}
+
+	/**
+	 * Returns the statistics of this virtual machine.
+	 */
+	@Basic @Immutable
+	public static ModelStatistics getInstance() {
+		return INSTANCE;
+	}
+
+	private static final ModelStatistics INSTANCE = new ModelStatistics();
+
+	/**
+	 * A striped counter that also keeps track of its rate.
+	 */
+	private static final class Counter {
+
+		private final LongAdder total = new LongAdder();
+
+		private long sampleTime = System.nanoTime();
+
+		private long sampleValue = 0;
+
+		private double rate = 0;
+
+		private void add(long value) {
+			total.add(value);
+		}
+
+		private void increment() {
+			total.increment();
+		}
+
+		private long get() {
+			return total.sum();
+		}
+
+		private synchronized double getRate() {
+			long now = System.nanoTime();
+			if ( now - sampleTime >= RATE_INTERVAL ) {
+				long value = total.sum();
+				rate = (value - sampleValue) * 1e9 / (now - sampleTime);
+				sampleTime = now;
+				sampleValue = value;
+			}
+			return rate;
+		}
+
+		private synchronized void reset() {
+			total.reset();
+			sampleTime = System.nanoTime();
+			sampleValue = 0;
+			rate = 0;
+		}
+	}
+
+	private final Counter turns = new Counter();
+
+	private final Counter terrainQueries = new Counter();
+
+	private final Counter overlapQueries = new Counter();
+
+	private final Counter jumpSolverRuns = new Counter();
+
+	private final Counter jumpSolverIterations = new Counter();
+
+	private final Counter programTurns = new Counter();
+
+	private final Counter interpreterSteps = new Counter();
+
+	private final Counter queryMemoHits = new Counter();
+
+	private final Counter queryMemoMisses = new Counter();
+
+	private final Counter parses = new Counter();
+
+	/**
+	 * Registers the given world, and publishes these statistics if that has not been done yet.
+	 *   Worlds are only weakly referenced.
+	 */
+	static void registerWorld(World world) {
+		synchronized (worlds) {
+			worlds.add(world);
+		}
+		if ( ! isPublished )
+			publish();
+	}
+
+	private static final Set<World> worlds = Collections.newSetFromMap(new WeakHashMap<World, Boolean>());
+
+	private static volatile boolean isPublished = false;
+
+	private static synchronized void publish() {
+		if ( isPublished )
+			return;
+		isPublished = true;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if ( ! server.isRegistered(name) )
+				server.registerMBean(INSTANCE, name);
+		}
+		catch ( JMException exc ) {
+			// statistics are still collected, but can only be read directly
+		}
+		catch ( SecurityException exc ) {
+			// idem
+		}
+	}
+
+	static void countTurn() {
+		INSTANCE.turns.increment();
+	}
+
+	static void countTerrainQuery() {
+		INSTANCE.terrainQueries.increment();
+	}
+
+	static void countOverlapQuery() {
+		INSTANCE.overlapQueries.increment();
+	}
+
+	static void countJumpSolver(long nbIterations) {
+		INSTANCE.jumpSolverRuns.increment();
+		INSTANCE.jumpSolverIterations.add(nbIterations);
+	}
+
+	static void countProgramTurn(long nbSteps, long nbMemoHits, long nbMemoMisses) {
+		INSTANCE.programTurns.increment();
+		INSTANCE.interpreterSteps.add(nbSteps);
+		INSTANCE.queryMemoHits.add(nbMemoHits);
+		INSTANCE.queryMemoMisses.add(nbMemoMisses);
+	}
+
+	static void countParse() {
+		INSTANCE.parses.increment();
+	}
+
+	/**
+	 * The game objects of all worlds that are still referenced are counted, so that the objects
+	 *   of a world are no longer counted once that world has been garbage collected.
+	 *   Types without live objects are left out.
+	 */
+	@Override
+	public Map<String, Long> getLiveObjectsByType() {
+		World[] liveWorlds;
+		synchronized (worlds) {
+			liveWorlds = worlds.toArray(new World[0]);
+		}
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for ( World world : liveWorlds )
+			for ( Map.Entry<Class<?>, Long> entry : world.getNbGameObjectsByClass().entrySet() ) {
+				String type = entry.getKey().getSimpleName();
+				Long other = result.get(type);
+				result.put(type, (other == null) ? entry.getValue() : other + entry.getValue());
+			}
+		return result;
+	}
+
+	@Override
+	public int getNbWorlds() {
+		synchronized (worlds) {
+			return worlds.size();
+		}
+	}
+
+	@Override
+	public long getTurns() {
+		return turns.get();
+	}
+
+	@Override
+	public double getTurnsPerSecond() {
+		return turns.getRate();
+	}
+
+	@Override
+	public long getTerrainQueries() {
+		return terrainQueries.get();
+	}
+
+	@Override
+	public double getTerrainQueriesPerSecond() {
+		return terrainQueries.getRate();
+	}
+
+	@Override
+	public long getOverlapQueries() {
+		return overlapQueries.get();
+	}
+
+	@Override
+	public double getOverlapQueriesPerSecond() {
+		return overlapQueries.getRate();
+	}
+
+	/**
+	 * @return | if (number of computed jumps == 0) then result == 0
+	 */
+	@Override
+	public double getAverageJumpSolverIterations() {
+		return ratio(jumpSolverIterations.get(), jumpSolverRuns.get());
+	}
+
+	/**
+	 * @return | if (number of program turns == 0) then result == 0
+	 */
+	@Override
+	public double getInterpreterStepsPerTurn() {
+		return ratio(interpreterSteps.get(), programTurns.get());
+	}
+
+	/**
+	 * @return | if (number of lookups == 0) then result == 0
+	 */
+	@Override
+	public double getQueryMemoHitRate() {
+		long hits = queryMemoHits.get();
+		return ratio(hits, hits + queryMemoMisses.get());
+	}
+
+	@Override
+	public long getParses() {
+		return parses.get();
+	}
+
+	private static double ratio(long numerator, long denominator) {
+		if ( denominator == 0 )
+			return 0;
+		return (double) numerator / denominator;
+	}
+
+	@Override
+	public void reset() {
+		for ( Counter counter : new Counter[] { turns, terrainQueries, overlapQueries, jumpSolverRuns,
+				jumpSolverIterations, programTurns, interpreterSteps, queryMemoHits, queryMemoMisses, parses } )
+			counter.reset();
+	}
+
+}
@@ -0,0 +1,70 @@
+package worms.model;
+
+import java.util.Map;
+
+/**
+ * A management interface for the statistics of all worlds and programs in this virtual machine.
+ *   Rates are averaged over intervals of at least one second, and totals are counted since
+ *   the statistics were last reset.
+ * 
+ * @author Delphine Vandamme
+ *
+ */
+public interface ModelStatisticsMXBean {
+
+	/**
+	 * Returns the number of live game objects in all worlds, by simple class name.
+	 *   A game object is live from the moment it is added to a world until it is removed from it,
+	 *   or until its world is no longer referenced.
+	 */
+	public Map<String, Long> getLiveObjectsByType();
+
+	/**
+	 * Returns the number of worlds that are still referenced.
+	 */
+	public int getNbWorlds();
+
+	public long getTurns();
+
+	public double getTurnsPerSecond();
+
+	/**
+	 * Returns the number of checks whether a region of a world is impassable.
+	 */
+	public long getTerrainQueries();
+
+	public double getTerrainQueriesPerSecond();
+
+	/**
+	 * Returns the number of searches for game objects that overlap with a region of a world.
+	 */
+	public long getOverlapQueries();
+
+	public double getOverlapQueriesPerSecond();
+
+	/**
+	 * Returns the average number of time steps taken to compute a jump or a projectile flight.
+	 */
+	public double getAverageJumpSolverIterations();
+
+	/**
+	 * Returns the average number of statements and conditions evaluated in a turn of a program.
+	 */
+	public double getInterpreterStepsPerTurn();
+
+	/**
+	 * Returns the fraction of query lookups of programs that were answered from their memo tables.
+	 */
+	public double getQueryMemoHitRate();
+
+	/**
+	 * Returns the number of programs that have been parsed.
+	 */
+	public long getParses();
+
+	/**
+	 * Resets all counters to zero.
+	 */
+	public void reset();
+
+}
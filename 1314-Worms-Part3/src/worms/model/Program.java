@@ -5,12 +5,17 @@ import java.util.Map;
 import be.kuleuven.cs.som.annotate.*;
 import worms.exceptions.InterruptException;
 import worms.gui.game.IActionHandler;
+import worms.programs.CompiledStatement;
+import worms.programs.ProgramCompiler;
 import worms.programs.Expression;
 import worms.programs.ProgramFactoryImpl;
+import worms.programs.QueryMemo;
 import worms.programs.Statement;
 import worms.programs.Type;
+import worms.model.events.ProgramExecutionEvent;
 import worms.model.programs.ParseOutcome;
 import worms.model.programs.ProgramParser;
+import worms.util.LatencyHistogram;
 
 /**
  * A class of programs with a program text and action handler, and an agent which executes the program.
@@ -95,6 +100,7 @@ public class Program {
 	private Statement programStatement;
 
 	public ParseOutcome<?> parse() {
+		ModelStatistics.countParse();
 		ProgramParser<Expression<? extends Type>, Statement, Type> parser = 
 				new ProgramParser<Expression<? extends Type>, Statement, Type>(new ProgramFactoryImpl(this));
 		parser.parse(this.programText);
@@ -110,15 +116,148 @@ public class Program {
 	public void execute() {
 		if ( ! hasProperAgent() ) 
 			throw new IllegalStateException("This program has no valid owner!");
+		ProgramExecutionEvent event = ProgramExecutionEvent.beginIfEnabled();
+		String outcome = ProgramExecutionEvent.COMPLETED;
+		long start = System.nanoTime();
+		long memoHits = getQueryMemo().getHits();
+		long memoMisses = getQueryMemo().getMisses();
+		this.nbStepsInTurn = 0;
+		getQueryMemo().clear();
+		if ( ! isCompiled() && (getNbBackEdges() >= getHotLoopThreshold()) )
+			compile();
 		try {
-			this.programStatement.execute( getLine(), getColumn() );
+			getExecutableStatement().execute( getLine(), getColumn() );
 		} 
 		catch ( InterruptException exc ) {
 			setLine( exc.getLine() );
 			setColumn( exc.getColumn() );
+			outcome = ProgramExecutionEvent.INTERRUPTED;
+		}
+		catch ( RuntimeException exc ) {
+			outcome = exc.getClass().getSimpleName();
+			throw exc;
+		}
+		finally {
+			if ( getExecutionTimes() != null )
+				getExecutionTimes().recordSince(start);
+			ModelStatistics.countProgramTurn(this.nbStepsInTurn, getQueryMemo().getHits() - memoHits, 
+					getQueryMemo().getMisses() - memoMisses);
+			if ( event != null )
+				event.finish(getAgent().getName(), isCompiled(), this.nbStepsInTurn, outcome, getLine(), getColumn());
+		}
+	}
+	
+	/**
+	 * Registers that a statement or a condition of this program has been executed in the current turn.
+	 */
+	public void registerStep() {
+		this.nbStepsInTurn++;
+	}
+	
+	/**
+	 * Registers that the given number of statements or conditions of this program have been executed
+	 * in the current turn.
+	 */
+	public void registerSteps(int nbSteps) {
+		this.nbStepsInTurn += nbSteps;
+	}
+	
+	private long nbStepsInTurn = 0;
+	
+	/**
+	 * Returns the histogram in which the duration of each execution of this program is recorded,
+	 * or null if execution times are not recorded.
+	 */
+	public LatencyHistogram getExecutionTimes() {
+		return this.executionTimes;
+	}
+	
+	public void setExecutionTimes(LatencyHistogram executionTimes) {
+		this.executionTimes = executionTimes;
+	}
+	
+	private LatencyHistogram executionTimes;
+	
+	/**
+	 * Returns the statement to be executed in the next turn: the compiled statement
+	 * if this program has been compiled, or the parsed statement tree otherwise.
+	 */
+	private Statement getExecutableStatement() {
+		if ( isCompiled() )
+			return this.compiledStatement;
+		return this.programStatement;
+	}
+	
+	/**
+	 * Compiles the statement tree of this program into a hidden class,
+	 * which is used for all subsequent executions.
+	 * A program that is too large to be compiled keeps running in the interpreter.
+	 */
+	public void compile() {
+		if ( (this.programStatement == null) || isCompiled() || ! isCompilable )
+			return;
+		try {
+			this.compiledStatement = new CompiledStatement(this, ProgramCompiler.compile(this, this.programStatement));
+		} catch ( IllegalArgumentException exc ) {
+			this.isCompilable = false;
 		}
 	}
 	
+	public boolean isCompiled() {
+		return this.compiledStatement != null;
+	}
+	
+	/**
+	 * Returns the compiled statement of this program, or null if it has not been compiled.
+	 */
+	public CompiledStatement getCompiledStatement() {
+		return this.compiledStatement;
+	}
+	
+	private CompiledStatement compiledStatement;
+	
+	private boolean isCompilable = true;
+	
+	/**
+	 * Registers that a loop of this program has finished an iteration in the interpreter.
+	 */
+	public void registerBackEdge() {
+		this.nbBackEdges++;
+	}
+	
+	public long getNbBackEdges() {
+		return this.nbBackEdges;
+	}
+	
+	private long nbBackEdges = 0;
+	
+	/**
+	 * Returns the number of loop iterations after which this program is compiled
+	 * at the start of its next turn.
+	 */
+	public int getHotLoopThreshold() {
+		return this.hotLoopThreshold;
+	}
+	
+	public void setHotLoopThreshold(int hotLoopThreshold) {
+		if ( hotLoopThreshold < 0 )
+			throw new IllegalArgumentException("The threshold cannot be negative");
+		this.hotLoopThreshold = hotLoopThreshold;
+	}
+	
+	public static final int DEFAULT_HOT_LOOP_THRESHOLD = 10000;
+	
+	private int hotLoopThreshold = DEFAULT_HOT_LOOP_THRESHOLD;
+	
+	/**
+	 * @return the memo table for the query expressions of this program
+	 */
+	public QueryMemo getQueryMemo() {
+		return queryMemo;
+	}
+	
+	private final QueryMemo queryMemo = new QueryMemo(this);
+	
 	public int getLine() {
 		return this.line;
 	}
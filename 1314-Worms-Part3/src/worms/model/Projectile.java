@@ -152,12 +152,20 @@ public abstract class Projectile extends MobileGameObject implements JumpAbility
 	public double jumpTime(double timeStep) {
 		if (timeStep < 0)
 			throw new IllegalArgumentException("Time step cannot be negative.");
+		double x0 = getPosition().getX(); double y0 = getPosition().getY();
+		double velocityX = initialVelocity() * Math.cos(getDirection());
+		double velocityY = initialVelocity() * Math.sin(getDirection());
 		double jumpTime = timeStep;
-		Position tempPos = jumpStep(jumpTime);
-		while (!stopJump(tempPos) ) {
+		double x = Geometry.ballisticX(x0, velocityX, jumpTime);
+		double y = Geometry.ballisticY(y0, velocityY, jumpTime);
+		long nbIterations = 1;
+		while (!stopJump(x, y) ) {
 			jumpTime += timeStep;
-			tempPos = jumpStep(jumpTime);
+			x = Geometry.ballisticX(x0, velocityX, jumpTime);
+			y = Geometry.ballisticY(y0, velocityY, jumpTime);
+			nbIterations++;
 		}
+		ModelStatistics.countJumpSolver(nbIterations);
 		return jumpTime;
 	}
 	
@@ -172,10 +180,19 @@ public abstract class Projectile extends MobileGameObject implements JumpAbility
                           && getWorld().isAdjacent(position, getRadius())) )
 	 */
 	public boolean stopJump(Position position) {
-		return ( getWorld().isImpassable(position, getRadius())
-		         || getWorld().overlapWithObjectOfType(Worm.class, position, getRadius())
-		         || (getPosition().getDistanceTo(position) > getRadius()
-                      && getWorld().isAdjacent(position, getRadius())) );
+		return stopJump(position.getX(), position.getY());
+	}
+	
+	/**
+	 * Returns whether or not the jump needs to be interrupted at the given coordinates.
+	 * 
+	 * @return result == stopJump(new Position(x, y))
+	 */
+	public boolean stopJump(double x, double y) {
+		return ( getWorld().isImpassable(x, y, getRadius())
+		         || getWorld().overlapWithObjectOfType(Worm.class, x, y, getRadius())
+		         || (Geometry.distance(getPosition().getX(), getPosition().getY(), x, y) > getRadius()
+                      && getWorld().isAdjacent(x, y, getRadius())) );
 	}
 	
 	/**
@@ -194,8 +211,8 @@ public abstract class Projectile extends MobileGameObject implements JumpAbility
 			throw new IllegalArgumentException("Time step cannot be negative.");
 		double initialVelocityX = initialVelocity() * Math.cos(getDirection());
 		double initialVelocityY = initialVelocity() * Math.sin(getDirection());
-		double xdt = getPosition().getX() + (initialVelocityX * dt);
-		double ydt = getPosition().getY() + (initialVelocityY * dt) - 0.5 * World.ACCELERATION * Math.pow(dt, 2);
+		double xdt = Geometry.ballisticX(getPosition().getX(), initialVelocityX, dt);
+		double ydt = Geometry.ballisticY(getPosition().getY(), initialVelocityY, dt);
 		return new Position(xdt,ydt);
 	}
 	
@@ -1,8 +1,14 @@
 package worms.model;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 import be.kuleuven.cs.som.annotate.*;
 import worms.exceptions.*;
+import worms.model.events.TerrainSearchEvent;
+import worms.model.events.TurnEvent;
 import worms.util.Util;
 
 /**
@@ -33,6 +39,7 @@ public class World {
 	 *       | new.getWidth() == width
 	 * @post   The height of this new world is equal to the given height.
 	 *       | new.getHeight() == height
+	 * @effect | publishSnapshot()
 	 * @throws IllegalArgumentException
 	 *       | random != null 
 	 * @throws IllegalDimensionException
@@ -54,6 +61,9 @@ public class World {
 		this.height = height;
 		this.random = random;
 		this.map = passableMap;
+		this.adjacencyIndex = new AdjacencyIndex(passableMap, width, height);
+		publishSnapshot();
+		ModelStatistics.registerWorld(this);
 	}
 	
 	/**
@@ -77,6 +87,29 @@ public class World {
 	 */
 	private final Random random;
 	
+	/**
+	 * Variable registering the index of the positions of this world that are adjacent to impassable terrain.
+	 */
+	private final AdjacencyIndex adjacencyIndex;
+	
+	/**
+	 * Returns the table of the impassable terrain in each column of pixels of this world.
+	 */
+	private GroundHeightTable getGroundHeightTable() {
+		GroundHeightTable table = this.groundHeightTable;
+		if (table == null) {
+			table = new GroundHeightTable(this.map);
+			this.groundHeightTable = table;
+		}
+		return table;
+	}
+	
+	/**
+	 * Variable registering the table of the impassable terrain in each column of pixels of this world, 
+	 * once it is built. Building it twice on different threads gives the same table, so it is only published.
+	 */
+	private volatile GroundHeightTable groundHeightTable;
+	
 	/**
 	 * Check whether the given height and width is a valid height and width for a world.
 	 * 
@@ -195,20 +228,105 @@ public class World {
 	 * @return a random position adjacent to impassable terrain 
 	 */
 	public Position getRandomAdjacentPosition(double radius) {
+		TerrainSearchEvent event = TerrainSearchEvent.beginIfEnabled();
+		Position result = searchRandomAdjacentPosition(radius);
+		if (event != null)
+			event.finish("getRandomAdjacentPosition", radius, result != null);
+		return result;
+	}
+	
+	/**
+	 * Variable registering the factors of the radius at which isAdjacent checks the bounding box of a circle.
+	 */
+	private static final double[] ADJACENCY_RADIUS_FACTORS = { -1.1, -1, 1, 1.1 };
+	
+	/**
+	 * Walks from a random perimeter position towards the center of this world, and returns the first 
+	 * adjacent position on the way.
+	 *   isAdjacent only depends on the pixels covered by the bounding boxes of the circles with the given 
+	 *   radius and 1.1 times the given radius, so it can only change where one of the sides of these boxes 
+	 *   crosses a line of the pixel grid. The walk visits these crossings in order (as in a grid traversal
+	 *   of Amanatides and Woo, with one traversal per side), and checks a single position in between 
+	 *   each pair of crossings.
+	 */
+	private Position searchRandomAdjacentPosition(double radius) {
 		Position position  = getRandomPerimeterPosition(radius);
-		Position center = new Position(getWidth() / 2, getHeight() / 2);
-	    double maxDistance = position.getDistanceTo(center);
-	    double step = Util.DEFAULT_EPSILON;
-	    double stepX = step * (getWidth()  / 2 - position.getX()) / (maxDistance);
-	    double stepY = step * (getHeight() / 2 - position.getY()) / (maxDistance);
-	    for (double distance = 0;  Util.fuzzyLessThanOrEqualTo(distance, maxDistance); distance += step) {
-	    	position = position.addToX(stepX).addToY(stepY);
-	    	if (isAdjacent(position, radius))
-	    		return position;
+		double x = position.getX(); double y = position.getY();
+	    double maxDistance = Geometry.distance(x, y, getWidth() / 2, getHeight() / 2);
+	    double directionX = (getWidth()  / 2 - x) / maxDistance;
+	    double directionY = (getHeight() / 2 - y) / maxDistance;
+	    double[] nextCrossingX = new double[ADJACENCY_RADIUS_FACTORS.length];
+	    double[] nextCrossingY = new double[ADJACENCY_RADIUS_FACTORS.length];
+	    for (int i = 0; i < ADJACENCY_RADIUS_FACTORS.length; i++) {
+	    	nextCrossingX[i] = firstCrossing(x + ADJACENCY_RADIUS_FACTORS[i] * radius, directionX, getPixelWidth());
+	    	nextCrossingY[i] = firstCrossing(y + ADJACENCY_RADIUS_FACTORS[i] * radius, directionY, getPixelHeight());
+	    }
+	    double crossingDistanceX = getPixelWidth()  / Math.abs(directionX);
+	    double crossingDistanceY = getPixelHeight() / Math.abs(directionY);
+	    double distance = 0;
+	    while ( Util.fuzzyLessThanOrEqualTo(distance, maxDistance) ) {
+	    	double nextDistance = Double.POSITIVE_INFINITY;
+	    	for (int i = 0; i < ADJACENCY_RADIUS_FACTORS.length; i++)
+	    		nextDistance = Math.min(nextDistance, Math.min(nextCrossingX[i], nextCrossingY[i]));
+	    	double probe = distance + Math.min(Util.DEFAULT_EPSILON, (nextDistance - distance) / 2);
+	    	if (probe > maxDistance + Util.DEFAULT_EPSILON)
+	    		return null;
+	    	double probeX = x + probe * directionX; double probeY = y + probe * directionY;
+	    	if (isAdjacent(probeX, probeY, radius))
+	    		return new Position(probeX, probeY);
+	    	for (int i = 0; i < ADJACENCY_RADIUS_FACTORS.length; i++) {
+	    		if (nextCrossingX[i] == nextDistance) nextCrossingX[i] += crossingDistanceX;
+	    		if (nextCrossingY[i] == nextDistance) nextCrossingY[i] += crossingDistanceY;
+	    	}
+	    	distance = nextDistance;
 	    }
 		return null;
 	}
 	
+	/**
+	 * Returns the distance along a walk in the given direction, starting from the given coordinate, 
+	 * to the first line of a grid with the given spacing that the walk crosses.
+	 * 
+	 * @return if (direction == 0) then result == Double.POSITIVE_INFINITY
+	 */
+	private static double firstCrossing(double coordinate, double direction, double spacing) {
+		if (direction > 0)
+			return ((Math.floor(coordinate / spacing) + 1) * spacing - coordinate) / direction;
+		if (direction < 0)
+			return (coordinate - (Math.ceil(coordinate / spacing) - 1) * spacing) / -direction;
+		return Double.POSITIVE_INFINITY;
+	}
+	
+	/**
+	 * Variable registering the maximal number of cells of the contour that getRandomContourPosition tries.
+	 */
+	private static final int MAX_CONTOUR_ATTEMPTS = 10;
+	
+	/**
+	 * Returns a random adjacent position in this world for a game object with given radius,
+	 * drawn uniformly from the cells of pixels along the surface of the terrain in which isAdjacent holds.
+	 *   The cells are indexed for radii that are rounded to AdjacencyIndex.RADIUS_BUCKET, so the center of
+	 *   a cell is only returned if it is adjacent for the given radius itself. If no such center is found 
+	 *   after a few random draws, the position is searched as in getRandomAdjacentPosition.
+	 *   Indexing the cells for a new bucket takes much longer than a single search, so this method only
+	 *   pays off for game objects that are placed many times with the same radius, such as food.
+	 *
+	 * @param  radius
+	 *         The radius of the circular domain to be checked.
+	 * @return if (result != null) 
+	 *            then isAdjacent(result, radius)
+	 */
+	public Position getRandomContourPosition(double radius) {
+		AdjacencyIndex.Contour contour = adjacencyIndex.getContour(radius);
+		for (int attempt = 0; (attempt < MAX_CONTOUR_ATTEMPTS) && (contour.size() > 0); attempt++) {
+			int number = random.nextInt(contour.size());
+			double x = contour.getX(number); double y = contour.getY(number);
+			if (isAdjacent(x, y, radius))
+				return new Position(x, y);
+		}
+		return getRandomAdjacentPosition(radius);
+	}
+	
 	/**
      * Returns an adjacent or passable position in a certain region around the given mobile game object.
      * 
@@ -237,32 +355,121 @@ public class World {
 	 *
 	 */
 	public Position getAdjacentorPassablePositionTo(MobileGameObject object, double maxDistance) {
+		TerrainSearchEvent event = TerrainSearchEvent.beginIfEnabled();
+		Position result = searchAdjacentorPassablePositionTo(object, maxDistance);
+		if (event != null)
+			event.finish("getAdjacentorPassablePositionTo", object.getRadius(), result != null);
+		return result;
+	}
+	
+	/**
+	 * Variable registering the divergences from the direction of a moving object, in the order in which 
+	 * getAdjacentorPassablePositionTo tries them; each divergence is tried to both sides.
+	 */
+	private static final double[] MOVE_DIVERGENCES = computeMoveDivergences();
+	
+	private static double[] computeMoveDivergences() {
+		List<Double> divergences = new ArrayList<Double>();
+		for ( double divergence = 0.0175; Util.fuzzyLessThanOrEqualTo(divergence, 0.7875); divergence += 0.0175 )
+			divergences.add(divergence);
+		double[] result = new double[divergences.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = divergences.get(i);
+		return result;
+	}
+	
+	/**
+	 * A class of searches for adjacent or passable positions, registering the search that was last done
+	 * together with the directions of its fan of candidates.
+	 */
+	private static final class MoveSearch {
+		
+		private MoveSearch(double x, double y, double direction, double radius, double maxDistance, 
+				double[] fanCos, double[] fanSin, Position result) {
+			this.x = x; this.y = y; this.direction = direction; this.radius = radius; this.maxDistance = maxDistance;
+			this.fanCos = fanCos; this.fanSin = fanSin; this.result = result;
+		}
+		
+		private final double x, y, direction, radius, maxDistance;
+		
+		/**
+		 * Variables registering the cosines and sines of the direction of the search, diverged by each
+		 * of MOVE_DIVERGENCES in turn to the left and to the right.
+		 */
+		private final double[] fanCos, fanSin;
+		
+		private final Position result;
+		
+		private boolean isFor(double x, double y, double direction, double radius, double maxDistance) {
+			return (this.x == x) && (this.y == y) && (this.direction == direction) 
+					&& (this.radius == radius) && (this.maxDistance == maxDistance);
+		}
+	}
+	
+	/**
+	 * Variable registering the last search for an adjacent or passable position in this world.
+	 *   The terrain of a world never changes, so the result of a search only depends on its parameters.
+	 */
+	private volatile MoveSearch lastMoveSearch;
+	
+	/**
+	 * Searches an adjacent or passable position for the given object.
+	 *   The candidates at each distance are tried in the same order as before, but the directions of the 
+	 *   fan of candidates are only computed once per direction, and candidates are checked by the
+	 *   adjacency index in constant time. The last search is remembered, so that asking whether a worm
+	 *   can move and then moving it only searches once.
+	 */
+	private Position searchAdjacentorPassablePositionTo(MobileGameObject object, double maxDistance) {
 		double radius = object.getRadius(); 
 		double direction = object.getDirection(); 
-		Position currentPos = new Position(object.getPosition());
+		double currentX = object.getPosition().getX(); double currentY = object.getPosition().getY();
+		MoveSearch last = this.lastMoveSearch;
+		if ( (last != null) && last.isFor(currentX, currentY, direction, radius, maxDistance) )
+			return last.result;
+		double[] fanCos; double[] fanSin;
+		if ( (last != null) && (last.direction == direction) ) {
+			fanCos = last.fanCos; fanSin = last.fanSin;
+		}
+		else {
+			fanCos = new double[2 * MOVE_DIVERGENCES.length]; fanSin = new double[2 * MOVE_DIVERGENCES.length];
+			for (int i = 0; i < MOVE_DIVERGENCES.length; i++) {
+				fanCos[2 * i] = Math.cos(direction + MOVE_DIVERGENCES[i]);
+				fanSin[2 * i] = Math.sin(direction + MOVE_DIVERGENCES[i]);
+				fanCos[2 * i + 1] = Math.cos(direction - MOVE_DIVERGENCES[i]);
+				fanSin[2 * i + 1] = Math.sin(direction - MOVE_DIVERGENCES[i]);
+			}
+		}
+		Position result = searchAdjacentorPassablePositionTo(currentX, currentY, direction, radius, maxDistance, fanCos, fanSin);
+		this.lastMoveSearch = new MoveSearch(currentX, currentY, direction, radius, maxDistance, fanCos, fanSin, result);
+		return result;
+	}
+	
+	private Position searchAdjacentorPassablePositionTo(double currentX, double currentY, double direction, double radius, 
+			double maxDistance, double[] fanCos, double[] fanSin) {
 		double step = radius / 100;
-		Position passablePos = null;
+		double cos = Math.cos(direction); double sin = Math.sin(direction);
+		boolean hasPassablePos = false;
+		double passableX = 0; double passableY = 0;
 		for (double distance = maxDistance; Util.fuzzyGreaterThanOrEqualTo(distance, 0.1); distance -= step ) {
 			
-			Position tempPos = currentPos.addToX(distance*Math.cos(direction)).addToY(distance*Math.sin(direction));
-			if ( isAdjacent(tempPos, radius) )
-				return tempPos;	
+			double tempX = currentX + distance*cos;
+			double tempY = currentY + distance*sin;
+			if ( adjacencyIndex.isAdjacent(tempX, tempY, radius) )
+				return new Position(tempX, tempY);	
 			
-			for ( double divergence = 0; Util.fuzzyLessThanOrEqualTo(divergence, 0.7875); divergence += 0.0175 ) {
-				
-				Position tempPosDiverged = currentPos.rotateBy(divergence, distance, direction);
-				if (isAdjacent(tempPosDiverged, radius))
-					return tempPosDiverged;
-				
-				tempPosDiverged = currentPos.rotateBy(-divergence, distance, direction);
-				if (isAdjacent(tempPosDiverged, radius))
-					return tempPosDiverged;
+			for (int i = 0; i < fanCos.length; i++) {
+				double divergedX = currentX + distance * fanCos[i];
+				double divergedY = currentY + distance * fanSin[i];
+				if (adjacencyIndex.isAdjacent(divergedX, divergedY, radius))
+					return new Position(divergedX, divergedY);
 			}
-			if ( passablePos == null )
-				if (! isImpassable(tempPos, radius))
-					passablePos = tempPos;
+			if ( !hasPassablePos )
+				if (! adjacencyIndex.isImpassable(tempX, tempY, radius)) {
+					hasPassablePos = true;
+					passableX = tempX; passableY = tempY;
+				}
 		}
-		return passablePos;		
+		return hasPassablePos ? new Position(passableX, passableY) : null;		
 	}
 		
 	/**
@@ -273,12 +480,60 @@ public class World {
 	 *        The position of the center of the circle to check.
 	 * @param radius 
 	 *        The radius of the circle to check
-	 * @return result == (isInWorld(position, radius) && !isImpassable(position, radius) && 
-				          isInWorld(position,1.1*radius)) && isImpassable(position, 1.1*radius)
+	 * @return result == isAdjacent(position.getX(), position.getY(), radius)
 	 */
 	public boolean isAdjacent(Position position, double radius) {
-		return (isInWorld(position, radius) && !isImpassable(position, radius) && 
-				isInWorld(position,1.1*radius)) && isImpassable(position, 1.1*radius);
+		return isAdjacent(position.getX(), position.getY(), radius);
+	}
+	
+	/**
+	 * Checks whether the given circular region, defined by the 
+	 * given center coordinates and radius, is passable and adjacent to impassable terrain. 
+	 * 
+	 * @param x
+	 *        The x-coordinate of the center of the circle to check.
+	 * @param y
+	 *        The y-coordinate of the center of the circle to check.
+	 * @param radius 
+	 *        The radius of the circle to check
+	 * @return result == (isInWorld(x, y, radius) && !isImpassable(x, y, radius) && 
+				          isInWorld(x, y, 1.1*radius)) && isImpassable(x, y, 1.1*radius)
+	 */
+	public boolean isAdjacent(double x, double y, double radius) {
+		return (isInWorld(x, y, radius) && !isImpassable(x, y, radius) && 
+				isInWorld(x, y, 1.1*radius)) && isImpassable(x, y, 1.1*radius);
+	}
+	
+	/**
+	 * Returns the number of steps of the given size that a circle with given center coordinates and radius can descend,
+	 * before it can become adjacent to or overlap with impassable terrain, or leave this world through its bottom.
+	 *   The result is found by a binary search per column of pixels that the circle with 1.1 times the given radius
+	 *   covers, and is one step less than the exact number, to leave room for rounding errors.
+	 * 
+	 * @param  x
+	 *         The x-coordinate of the center of the circle.
+	 * @param  y
+	 *         The y-coordinate of the center of the circle.
+	 * @param  radius
+	 *         The radius of the circle.
+	 * @param  step
+	 *         The distance of a single step.
+	 * @return if (! isInWorld(x, y, radius))
+	 *            then result == 0
+	 * @return for each k in 0..result-1: 
+	 *            isInWorld(x, y - k * step, radius) && !isImpassable(x, y - k * step, radius) &&
+	 *            !isAdjacent(x, y - k * step, radius)
+	 */
+	int getNbFreeFallSteps(double x, double y, double radius, double step) {
+		if (! isInWorld(x, y, radius))
+			return 0;
+		double outerRadius = 1.1 * radius;
+		int column1 = Math.max(0, (int) Math.floor((x - outerRadius) / getPixelWidth()));
+		int column2 = Math.min(map[0].length - 1, ((int) Math.ceil((x + outerRadius) / getPixelWidth())) - 1);
+		int limit = Math.min(map.length, (int) Math.ceil((y + outerRadius) / getPixelHeight()));
+		int row = getGroundHeightTable().getHighestImpassableRow(column1, column2, limit);
+		double distance = (row < 0) ? (y - radius) : (y - outerRadius - (row + 1) * getPixelHeight());
+		return Math.max(0, (int) Math.floor(distance / step) - 1);
 	}
 	
 	/**
@@ -288,12 +543,26 @@ public class World {
 	 *         The position of the center of the circle to check.
 	 * @param  radius
 	 *         The radius of the circle to check
-	 * @return result == ((position.getY() - radius) > 0) && ((position.getY() + radius) < getHeight()) &&
-	 * 					 ((position.getX() - radius) > 0) && ((position.getX() + radius) < getWidth())
+	 * @return result == isInWorld(position.getX(), position.getY(), radius)
 	 */
 	public boolean isInWorld(Position position, double radius) {
+		return isInWorld(position.getX(), position.getY(), radius);
+	}
+	
+	/**
+	 * Checks whether the given circular region, defined by the given center coordinates and radius, is located in this world.
+	 * 
+	 * @param  x
+	 *         The x-coordinate of the center of the circle to check.
+	 * @param  y
+	 *         The y-coordinate of the center of the circle to check.
+	 * @param  radius
+	 *         The radius of the circle to check
+	 * @return result == ((y - radius) > 0) && ((y + radius) < getHeight()) &&
+	 * 					 ((x - radius) > 0) && ((x + radius) < getWidth())
+	 */
+	public boolean isInWorld(double x, double y, double radius) {
 		boolean isInWorld = true;
-		double x = position.getX(); double y = position.getY();
 		if ((x > getWidth()) || (x < 0) || (y > getHeight()) || (y < 0)) 
 			return !isInWorld;
 		double p1 = y - radius; double p2 = y + radius;
@@ -310,17 +579,33 @@ public class World {
 	 *         The position of the center of the circle to check 
 	 * @param  radius 
 	 *         The radius of the circle to check 
+	 * @return result == isImpassable(position.getX(), position.getY(), radius)
+	 */
+	public boolean isImpassable(Position position, double radius) throws IllegalStateException {
+		return isImpassable(position.getX(), position.getY(), radius);
+	}
+	
+	/**
+	 * Checks whether the given circular region of this world, defined by the given center coordinates and radius, is impassable. 
+	 * 
+	 * @param  x
+	 *         The x-coordinate of the center of the circle to check 
+	 * @param  y
+	 *         The y-coordinate of the center of the circle to check 
+	 * @param  radius 
+	 *         The radius of the circle to check 
 	 * @return True 
 	 *         if the given region is impassable, false otherwise.
 	 * @throws IllegalStateException
 	 *        | ( (c < 0)|| (c >= this.map[0].length) || (r < 0)|| (r >= this.map.length) )
 	 */
-	public boolean isImpassable(Position position, double radius) throws IllegalStateException {
-		if (! isInWorld(position, radius) )
+	public boolean isImpassable(double x, double y, double radius) throws IllegalStateException {
+		ModelStatistics.countTerrainQuery();
+		if (! isInWorld(x, y, radius) )
 			return true;
 		boolean passable = true;
-		double p1 = position.getY() - radius; double p2 = position.getY() + radius;
-	    double p3 = position.getX() - radius; double p4 = position.getX() + radius;
+		double p1 = y - radius; double p2 = y + radius;
+	    double p3 = x - radius; double p4 = x + radius;
 		int row1 = map.length - ((int) Math.floor(p1/getPixelHeight())) - 1;
 		int row2 = map.length - ((int) Math.ceil(p2/getPixelHeight()));
 		int col1 = ((int) Math.floor(p3 / getPixelWidth()));
@@ -383,6 +668,98 @@ public class World {
 		return true;
 	}
 	
+	/**
+	 * Returns the number of modifications registered with this world.
+	 *   The counter is incremented each time a game object is added to or removed from this world, 
+	 *   each time the position, direction, radius, hit points, action points, name or selected weapon 
+	 *   of one of its game objects change, and each time a new turn starts.
+	 */
+	@Basic @Raw
+	public long getModificationCount() {
+		return this.modificationCount;
+	}
+	
+	/**
+	 * Registers a modification of the state of this world.
+	 * 
+	 * @post   | new.getModificationCount() == getModificationCount() + 1
+	 */
+	public void registerModification() {
+		this.modificationCount++;
+	}
+	
+	/**
+	 * Variable registering the number of modifications of this world.
+	 */
+	private long modificationCount = 0;
+	
+	/**
+	 * Returns the most recently published snapshot of this world.
+	 *   The snapshot can be read by any thread, without synchronization.
+	 */
+	@Basic @Raw
+	public WorldSnapshot getSnapshot() {
+		return this.snapshot;
+	}
+	
+	/**
+	 * Publishes a snapshot of the current state of this world.
+	 *   This method should only be invoked by the thread that modifies this world.
+	 *   If this world has not been modified since the current snapshot was taken, 
+	 *   the current snapshot is kept.
+	 * 
+	 * @post   | new.getSnapshot().getVersion() == getModificationCount()
+	 * @post   | if ( (getSnapshot() != null) && (getSnapshot().getVersion() == getModificationCount()) )
+	 *         |   then new.getSnapshot() == getSnapshot()
+	 */
+	public void publishSnapshot() {
+		WorldSnapshot current = this.snapshot;
+		if ( (current == null) || (current.getVersion() != getModificationCount()) )
+			this.snapshot = new WorldSnapshot(this);
+	}
+	
+	/**
+	 * Variable referencing the most recently published snapshot of this world.
+	 */
+	private volatile WorldSnapshot snapshot;
+	
+	/**
+	 * Registers the given listener to be notified of all changes in this world.
+	 * 
+	 * @param  listener
+	 *         The listener to register.
+	 * @throws IllegalArgumentException
+	 *       | listener == null
+	 */
+	public void addListener(WorldListener listener) throws IllegalArgumentException {
+		if (listener == null)
+			throw new IllegalArgumentException("The listener must be effective.");
+		this.listeners.add(listener);
+	}
+	
+	/**
+	 * Removes the given listener from the listeners of this world.
+	 */
+	public void removeListener(WorldListener listener) {
+		this.listeners.remove(listener);
+	}
+	
+	/**
+	 * Notifies all listeners of this world of a change of the given type in the given game object.
+	 */
+	void fireEvent(WorldEvent.Type type, GameObject object) {
+		if (this.listeners.isEmpty())
+			return;
+		WorldEvent event = new WorldEvent(type, object);
+		for (WorldListener listener: this.listeners)
+			listener.worldChanged(event);
+	}
+	
+	/**
+	 * List collecting the listeners of this world.
+	 */
+	private final List<WorldListener> listeners = new CopyOnWriteArrayList<WorldListener>();
+	
 	/**
 	 * Add the given game object as a game object for this world.
 	 * @param  object
@@ -391,6 +768,11 @@ public class World {
 	 *       | new.hasAsGameObject(object)
 	 * @post   The given game object references this world as the world to which it is attached.
 	 *       | (new object).getWorld() == this
+	 * @effect | registerModification()
+	 * @post   The number of game objects of the class of the given object is incremented.
+	 *       | new.getNbGameObjectsByClass().get(object.getClass()) ==
+	 *       |    getNbGameObjectsByClass().get(object.getClass()) + 1
+	 * @effect | fireEvent(WorldEvent.Type.SPAWNED, object)
 	 * @throws IllegalArgumentException
 	 *         This world cannot have the given object as one of its objects.
 	 *       | ! canHaveAsGameObject(object)
@@ -409,7 +791,9 @@ public class World {
 		if (object instanceof Projectile) {
 			this.activeProjectile = (Projectile) object;
 		}
-
+		registerModification();
+		getGameObjectCounter(object.getClass()).increment();
+		fireEvent(WorldEvent.Type.SPAWNED, object);
 	}
 	
 	/**
@@ -418,12 +802,20 @@ public class World {
 	 *         The object to be removed.
 	 * @post   This world does not have the given object as one of its objects.
 	 *       | ! new.hasAsGameObject(object) 
+	 * @effect | if (hasAsGameObject(object)) then registerModification()
+	 * @post   If this world had the given object, the number of game objects of its class is decremented.
+	 *       | if (hasAsGameObject(object)) then new.getNbGameObjectsByClass().get(object.getClass()) ==
+	 *       |    getNbGameObjectsByClass().get(object.getClass()) - 1
+	 * @effect | if (hasAsGameObject(object)) then fireEvent(WorldEvent.Type.TERMINATED, object)
 	 */
 	public void removeAsGameObject(GameObject object) {
 		if (hasAsGameObject(object)) {
 			this.objects.remove(object);
 			if (object instanceof Projectile) 
 				this.activeProjectile = null;
+			registerModification();
+			getGameObjectCounter(object.getClass()).decrement();
+			fireEvent(WorldEvent.Type.TERMINATED, object);
 		}
 	}
 	
@@ -448,6 +840,37 @@ public class World {
 	 */
 	private final List<GameObject> objects = new ArrayList<GameObject>();
 	
+	/**
+	 * Returns the number of game objects attached to this world, by class.
+	 *   Classes of which this world has no game objects are left out. Unlike the game objects
+	 *   themselves, these numbers can be read from any thread.
+	 */
+	Map<Class<?>, Long> getNbGameObjectsByClass() {
+		Map<Class<?>, Long> result = new HashMap<Class<?>, Long>();
+		for (Map.Entry<Class<?>, LongAdder> entry : gameObjectCounters.entrySet()) {
+			long count = entry.getValue().sum();
+			if (count > 0)
+				result.put(entry.getKey(), count);
+		}
+		return result;
+	}
+	
+	private LongAdder getGameObjectCounter(Class<?> type) {
+		LongAdder counter = gameObjectCounters.get(type);
+		if (counter == null) {
+			LongAdder other = gameObjectCounters.putIfAbsent(type, counter = new LongAdder());
+			if (other != null)
+				counter = other;
+		}
+		return counter;
+	}
+	
+	/**
+	 * Map registering, for each class of game objects, the number of game objects of that class
+	 *   attached to this world.
+	 */
+	private final ConcurrentMap<Class<?>, LongAdder> gameObjectCounters = new ConcurrentHashMap<Class<?>, LongAdder>();
+	
 	/**
 	 * Returns all the game objects of the given type in this world.
 	 * 
@@ -482,6 +905,7 @@ public class World {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T extends GameObject> List<T> getOverlappingObjectsOfType(Class<T> type, Position position, double radius) {
+		ModelStatistics.countOverlapQuery();
 		List<T> result = new ArrayList<T>();
 		for (GameObject object: this.objects) {
 			if (type.isInstance(object))
@@ -504,8 +928,34 @@ public class World {
 	 * @return result == ! getOverlappingObjectsOfType(type, position, radius).isEmpty()
 	*/
 	public <T extends GameObject> boolean overlapWithObjectOfType(Class<T> type, Position position, double radius) {
-		List<T> overlappingObjects = getOverlappingObjectsOfType(type, position, radius);
-		return  !overlappingObjects.isEmpty();
+		return overlapWithObjectOfType(type, position.getX(), position.getY(), radius);
+	}
+	
+	/**
+	 * Returns whether or not there is overlap with a game object of the given type in a circular 
+	 * region with given center coordinates and radius.
+	 * 
+	 * @param type
+	 *        The type of game objects to check for overlap.
+	 * @param  x
+	 *         The x-coordinate of the center of the circular region to check.
+	 * @param  y
+	 *         The y-coordinate of the center of the circular region to check.
+	 * @param  radius
+	 *         The radius of the circular region to check.
+	 * @return result == ! getOverlappingObjectsOfType(type, new Position(x, y), radius).isEmpty()
+	*/
+	public <T extends GameObject> boolean overlapWithObjectOfType(Class<T> type, double x, double y, double radius) {
+		ModelStatistics.countOverlapQuery();
+		for (int i = 0; i < this.objects.size(); i++) {
+			GameObject object = this.objects.get(i);
+			if (type.isInstance(object)) {
+				Position position = object.getPosition();
+				if (Geometry.distance(x, y, position.getX(), position.getY()) < (radius + object.getRadius()))
+					return true;
+			}
+		}
+		return false;
 	}
 	
 	/**
@@ -557,6 +1007,7 @@ public class World {
 	 *            then characters.get( getIndexOfCurrentPlayer() ).setToActive(true)
 	 * @effect if (index != characters.size() && (activeCharacter == null)) 
 	 *            then setIndexOfCurrentPlayer( getIndexOfCurrentPlayer() )
+	 * @effect registerModification()
 	 * @effect if (nextCharacter.hasProgram()) then ( nextCharacter.getProgram().execute() )
 	 * @effect if (nextCharacter.hasProgram()) then ( startNextTurn() )
 	 */
@@ -569,18 +1020,63 @@ public class World {
 			activeCharacter.setToActive(false);
 			index = getIndexOfCurrentPlayer() + 1;
 		}
+		finishTurnEvent();
 		List<Character> characters = getGameObjectsOfType(Character.class);
 		if ( index == characters.size() )
 			index = 0;
 		Character nextCharacter = characters.get(index);
 		setIndexOfCurrentPlayer(index);
 		nextCharacter.setToActive(true);
+		registerModification();
+		ModelStatistics.countTurn();
+		startTurnEvent(nextCharacter);
+		fireEvent(WorldEvent.Type.TURN_CHANGED, nextCharacter);
 		
 		if (nextCharacter.hasProgram()) {
 			nextCharacter.getProgram().execute();
 			startNextTurn();
 		}
 	}
+	
+	/**
+	 * Starts recording the turn of the given character for the flight recorder, if turn events
+	 * are enabled.
+	 */
+	private void startTurnEvent(Character character) {
+		this.turnEvent = TurnEvent.beginIfEnabled();
+		if (this.turnEvent != null) {
+			this.turnCharacter = character;
+			this.turnActionPointsAtStart = character.getActionPoints();
+		}
+	}
+	
+	/**
+	 * Ends the recording of the current turn, if any.
+	 */
+	private void finishTurnEvent() {
+		if (this.turnEvent != null) {
+			this.turnEvent.finish(this.turnCharacter.getName(), this.turnCharacter.getClass().getSimpleName(), 
+					this.turnCharacter.hasProgram(), this.turnActionPointsAtStart, this.turnCharacter.getActionPoints());
+			this.turnEvent = null;
+			this.turnCharacter = null;
+		}
+	}
+	
+	/**
+	 * Variable registering the flight recorder event of the current turn.
+	 */
+	private TurnEvent turnEvent;
+	
+	/**
+	 * Variable registering the character whose turn is recorded.
+	 */
+	private Character turnCharacter;
+	
+	/**
+	 * Variable registering the action points of the character whose turn is recorded, at the
+	 * start of its turn.
+	 */
+	private int turnActionPointsAtStart;
 
 	/**
 	 * returns the index of the current player.
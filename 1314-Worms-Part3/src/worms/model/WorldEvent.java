@@ -0,0 +1,67 @@
+package worms.model;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of events signaling a change in a world or in one of its game objects.
+ * 
+ * @author Delphine Vandamme
+ *
+ */
+@Value
+public class WorldEvent {
+
+	/**
+	 * An enumeration of the kinds of changes that are signaled by world events.
+	 */
+	public static enum Type {
+		/** A game object has been added to the world. */
+		SPAWNED,
+		/** The position or direction of a game object has changed. */
+		MOVED,
+		/** The radius of a game object has changed. */
+		RADIUS_CHANGED,
+		/** The hit points of a worm have changed. */
+		HIT_POINTS_CHANGED,
+		/** Another property of a game object, such as its action points, name or weapon, has changed. */
+		STATE_CHANGED,
+		/** A game object has been removed from the world. */
+		TERMINATED,
+		/** The turn has passed to another character. */
+		TURN_CHANGED
+	}
+
+	/**
+	 * Initialize this new world event with given type and given game object.
+	 * 
+	 * @param  type
+	 *         The kind of change signaled by this new event.
+	 * @param  object
+	 *         The game object that has changed, or the character whose turn has started.
+	 * @post   | new.getType() == type
+	 * @post   | new.getObject() == object
+	 */
+	public WorldEvent(Type type, GameObject object) {
+		this.type = type;
+		this.object = object;
+	}
+
+	@Basic @Immutable
+	public Type getType() {
+		return this.type;
+	}
+
+	private final Type type;
+
+	@Basic @Immutable
+	public GameObject getObject() {
+		return this.object;
+	}
+
+	private final GameObject object;
+
+	@Override
+	public String toString() {
+		return getType() + " " + getObject();
+	}
+
+}
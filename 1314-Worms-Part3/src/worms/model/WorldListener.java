@@ -0,0 +1,20 @@
+package worms.model;
+
+/**
+ * An interface for objects that are notified of changes in a world and its game objects.
+ *   Listeners are notified on the thread that modifies the world.
+ * 
+ * @author Delphine Vandamme
+ *
+ */
+public interface WorldListener {
+
+	/**
+	 * Notifies this listener of the given change.
+	 * 
+	 * @param event
+	 *        The event describing the change.
+	 */
+	public void worldChanged(WorldEvent event);
+
+}
@@ -0,0 +1,250 @@
+package worms.model;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of immutable snapshots of the state of a world and its game objects at a given moment.
+ *
+ * Snapshots are created by the thread that modifies the world, and can be read by any other
+ * thread without synchronization.
+ *
+ * @author Delphine Vandamme
+ *
+ */
+@Value
+public class WorldSnapshot {
+
+	/**
+	 * Initialize this new snapshot with the current state of the given world.
+	 *
+	 * @param  world
+	 *         The world to take a snapshot of.
+	 * @post   | new.getVersion() == world.getModificationCount()
+	 * @post   | new.getObjects().size() == world.getAllGameObjects().size()
+	 * @post   | new.getCurrentPlayer() == world.getCurrentPlayer()
+	 * @post   | new.isGameFinished() == world.isGameFinished()
+	 */
+	public WorldSnapshot(World world) {
+		this.version = world.getModificationCount();
+		this.width = world.getWidth();
+		this.height = world.getHeight();
+		this.currentPlayer = world.getCurrentPlayer();
+		this.gameFinished = world.isGameFinished();
+		List<ObjectSnapshot> objects = new ArrayList<ObjectSnapshot>();
+		Map<GameObject, ObjectSnapshot> snapshots = new IdentityHashMap<GameObject, ObjectSnapshot>();
+		for (GameObject object: world.getAllGameObjects()) {
+			ObjectSnapshot snapshot = new ObjectSnapshot(object);
+			objects.add(snapshot);
+			snapshots.put(object, snapshot);
+		}
+		this.objects = Collections.unmodifiableList(objects);
+		this.snapshots = snapshots;
+	}
+
+	/**
+	 * Returns the modification count of the world at the moment this snapshot was taken.
+	 */
+	@Basic @Immutable
+	public long getVersion() {
+		return this.version;
+	}
+
+	private final long version;
+
+	@Basic @Immutable
+	public double getWidth() {
+		return this.width;
+	}
+
+	private final double width;
+
+	@Basic @Immutable
+	public double getHeight() {
+		return this.height;
+	}
+
+	private final double height;
+
+	/**
+	 * Returns the character whose turn it was at the moment this snapshot was taken.
+	 */
+	@Basic @Immutable
+	public Character getCurrentPlayer() {
+		return this.currentPlayer;
+	}
+
+	private final Character currentPlayer;
+
+	@Basic @Immutable
+	public boolean isGameFinished() {
+		return this.gameFinished;
+	}
+
+	private final boolean gameFinished;
+
+	/**
+	 * Returns the snapshots of all game objects of the world.
+	 */
+	@Basic @Immutable
+	public List<ObjectSnapshot> getObjects() {
+		return this.objects;
+	}
+
+	private final List<ObjectSnapshot> objects;
+
+	/**
+	 * Returns the snapshots of all game objects of the given type.
+	 */
+	public List<ObjectSnapshot> getObjectsOfType(Class<? extends GameObject> type) {
+		List<ObjectSnapshot> result = new ArrayList<ObjectSnapshot>();
+		for (ObjectSnapshot snapshot: this.objects)
+			if (type.isInstance(snapshot.getObject()))
+				result.add(snapshot);
+		return result;
+	}
+
+	/**
+	 * Returns the snapshot of the given game object, or null if the object was not part of the world.
+	 */
+	public ObjectSnapshot getSnapshotOf(GameObject object) {
+		return this.snapshots.get(object);
+	}
+
+	private final Map<GameObject, ObjectSnapshot> snapshots;
+
+	/**
+	 * A class of immutable snapshots of the state of a single game object.
+	 */
+	@Value
+	public static class ObjectSnapshot {
+
+		private ObjectSnapshot(GameObject object) {
+			this.object = object;
+			this.x = object.getPosition().getX();
+			this.y = object.getPosition().getY();
+			this.radius = object.getRadius();
+			this.alive = object.isAlive();
+			if (object instanceof MobileGameObject)
+				this.direction = ((MobileGameObject) object).getDirection();
+			else
+				this.direction = 0;
+			if (object instanceof Character) {
+				Character character = (Character) object;
+				this.name = character.getName();
+				this.actionPoints = character.getActionPoints();
+				this.maxPoints = character.getMaxPoints();
+			} else {
+				this.name = null;
+				this.actionPoints = 0;
+				this.maxPoints = 0;
+			}
+			if (object instanceof Worm) {
+				Worm worm = (Worm) object;
+				this.hitPoints = worm.getHitPoints();
+				this.selectedWeapon = worm.getSelectedWeapon();
+			} else {
+				this.hitPoints = 0;
+				this.selectedWeapon = null;
+			}
+		}
+
+		/**
+		 * Returns the game object of which this is a snapshot.
+		 *   Its state should not be read by other threads than the one modifying the world.
+		 */
+		@Basic @Immutable
+		public GameObject getObject() {
+			return object;
+		}
+
+		private final GameObject object;
+
+		@Basic @Immutable
+		public double getX() {
+			return x;
+		}
+
+		private final double x;
+
+		@Basic @Immutable
+		public double getY() {
+			return y;
+		}
+
+		private final double y;
+
+		@Basic @Immutable
+		public double getRadius() {
+			return radius;
+		}
+
+		private final double radius;
+
+		/**
+		 * Returns the direction of the game object, or 0 if it is not mobile.
+		 */
+		@Basic @Immutable
+		public double getDirection() {
+			return direction;
+		}
+
+		private final double direction;
+
+		@Basic @Immutable
+		public boolean isAlive() {
+			return alive;
+		}
+
+		private final boolean alive;
+
+		/**
+		 * Returns the name of the character, or null if the game object is not a character.
+		 */
+		@Basic @Immutable
+		public String getName() {
+			return name;
+		}
+
+		private final String name;
+
+		@Basic @Immutable
+		public int getActionPoints() {
+			return actionPoints;
+		}
+
+		private final int actionPoints;
+
+		/**
+		 * Returns the maximal number of action and hit points of the character.
+		 */
+		@Basic @Immutable
+		public int getMaxPoints() {
+			return maxPoints;
+		}
+
+		private final int maxPoints;
+
+		@Basic @Immutable
+		public int getHitPoints() {
+			return hitPoints;
+		}
+
+		private final int hitPoints;
+
+		/**
+		 * Returns the name of the selected weapon of the worm, or null if there is none.
+		 */
+		@Basic @Immutable
+		public String getSelectedWeapon() {
+			return selectedWeapon;
+		}
+
+		private final String selectedWeapon;
+	}
+
+}
@@ -292,18 +292,35 @@ public class Worm extends Character implements JumpAbility, ShootAbility {
 	 * 		   are equal to the lowest possible value for the number of hit points of this worm.
 	 *        | if (hitPoints < getMinPoints())
 	 *        |     then new.getHitPoints() = this.getMinPoints()     
+	 * @effect | if (new.getHitPoints() != getHitPoints()) then registerModification()
+	 * @effect | if (new.getHitPoints() != getHitPoints()) then fireEvent(WorldEvent.Type.HIT_POINTS_CHANGED)
 	 */
 	public void setHitPoints(int hitPoints) {
 		if (hitPoints > getMaxPoints())
-			this.hitPoints = getMaxPoints();
+			changeHitPoints(getMaxPoints());
 		else if (hitPoints <= MINPOINTS) {
-			this.hitPoints = MINPOINTS;
+			changeHitPoints(MINPOINTS);
 			terminate();
 			if (getWorld().getCurrentPlayer() == null && getWorld().hasStarted() && !getWorld().isGameFinished())
 				getWorld().startNextTurn();
 		}
 		else 
+			changeHitPoints(hitPoints);
+	}
+	
+	/**
+	 * Sets the number of hit points of this worm to the given number, and registers the change with its world.
+	 * 
+	 * @post   | new.getHitPoints() == hitPoints
+	 * @effect | if (hitPoints != getHitPoints()) then registerModification()
+	 * @effect | if (hitPoints != getHitPoints()) then fireEvent(WorldEvent.Type.HIT_POINTS_CHANGED)
+	 */
+	private void changeHitPoints(int hitPoints) {
+		if (hitPoints != this.hitPoints) {
 			this.hitPoints = hitPoints;
+			registerModification();
+			fireEvent(WorldEvent.Type.HIT_POINTS_CHANGED);
+		}
 	}
 	
 	/**
@@ -399,13 +416,21 @@ public class Worm extends Character implements JumpAbility, ShootAbility {
 	public double jumpTime(double timeStep) throws IllegalArgumentException {
 		if (timeStep < 0)
 			throw new IllegalArgumentException("Time step cannot be negative.");
+		double x0 = getPosition().getX(); double y0 = getPosition().getY();
+		double velocityX = initialVelocity() * Math.cos(getDirection());
+		double velocityY = initialVelocity() * Math.sin(getDirection());
 		double jumpTime = timeStep;
-		Position tempPos = jumpStep(jumpTime);
-		while ( !stopJump(tempPos) ) {
+		double x = Geometry.ballisticX(x0, velocityX, jumpTime);
+		double y = Geometry.ballisticY(y0, velocityY, jumpTime);
+		long nbIterations = 1;
+		while ( !stopJump(x, y) ) {
 			jumpTime += timeStep;
-			tempPos = jumpStep(jumpTime);
+			x = Geometry.ballisticX(x0, velocityX, jumpTime);
+			y = Geometry.ballisticY(y0, velocityY, jumpTime);
+			nbIterations++;
 		}
-		if (getWorld().isImpassable(tempPos,getRadius()) && getWorld().isInWorld(tempPos,getRadius()))
+		ModelStatistics.countJumpSolver(nbIterations);
+		if (getWorld().isImpassable(x, y, getRadius()) && getWorld().isInWorld(x, y, getRadius()))
 			return 0;
 		return jumpTime;
 	}
@@ -422,8 +447,18 @@ public class Worm extends Character implements JumpAbility, ShootAbility {
 		           || (getPosition().getDistanceTo(position) > getRadius() && getWorld().isAdjacent(position, getRadius()))
 	 */
 	public boolean stopJump(Position position) {
-		return getWorld().isImpassable(position,getRadius())
-		       || (getPosition().getDistanceTo(position) > getRadius() && getWorld().isAdjacent(position, getRadius()));
+		return stopJump(position.getX(), position.getY());
+	}
+	
+	/**
+	 * Returns whether or not the jump needs to be interrupted at the given coordinates.
+	 * 
+	 * @return result == stopJump(new Position(x, y))
+	 */
+	public boolean stopJump(double x, double y) {
+		return getWorld().isImpassable(x, y, getRadius())
+		       || (Geometry.distance(getPosition().getX(), getPosition().getY(), x, y) > getRadius() 
+		    		   && getWorld().isAdjacent(x, y, getRadius()));
 	}
 	
 	/**
@@ -447,8 +482,8 @@ public class Worm extends Character implements JumpAbility, ShootAbility {
 			throw new IllegalArgumentException("Time step cannot be negative.");
 		double initialVelocityX = initialVelocity() * Math.cos(getDirection());
 		double initialVelocityY = initialVelocity() * Math.sin(getDirection());
-		double xdt = getPosition().getX() + (initialVelocityX * dt);
-		double ydt = getPosition().getY() + (initialVelocityY * dt) - 0.5 * World.ACCELERATION * Math.pow(dt, 2);
+		double xdt = Geometry.ballisticX(getPosition().getX(), initialVelocityX, dt);
+		double ydt = Geometry.ballisticY(getPosition().getY(), initialVelocityY, dt);
 		return new Position(xdt,ydt);
 	}
 	
@@ -611,6 +646,8 @@ public class Worm extends Character implements JumpAbility, ShootAbility {
 	 *       | if (index == this.weapons.size()) then this.selectedWeapon() == this.weapons.get(0)
 	 * @post   Otherwise, the next weapon is selected.
 	 *       | if (index != this.weapons.size()) then new.selectedWeapon() == weapons.get( this.weapons.indexOf(this.selectedWeapon) + 1 )
+	 * @effect | registerModification()
+	 * @effect | fireEvent(WorldEvent.Type.STATE_CHANGED)
 	 * @throws IllegalStateException 
 	 *         The worm has no weapons.
 	 *       | this.weapons.isEmpty()
@@ -623,6 +660,8 @@ public class Worm extends Character implements JumpAbility, ShootAbility {
 		if (index == this.weapons.size()) 
 			index = 0;
 		this.selectedWeapon = this.weapons.get(index);
+		registerModification();
+		fireEvent(WorldEvent.Type.STATE_CHANGED);
 	}
 
 	private Weapon selectedWeapon;
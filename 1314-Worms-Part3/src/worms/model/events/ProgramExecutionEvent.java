@@ -0,0 +1,87 @@
+package worms.model.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event spanning the execution of a program during a turn of its agent.
+ * 
+ * @author Delphine Vandamme
+ *
+ */
+@Name("worms.ProgramExecution")
+@Label("Program Execution")
+@Category({ "Worms", "Programs" })
+@Description("The execution of a program during a turn of its agent")
+@StackTrace(false)
+public class ProgramExecutionEvent extends Event {
+
+	/**
+	 * The outcome of an execution that has run until the end of the program.
+	 */
+	public static final String COMPLETED = "completed";
+
+	/**
+	 * The outcome of an execution that has been interrupted by an action that could not be performed.
+	 */
+	public static final String INTERRUPTED = "interrupted";
+
+	@Label("Agent")
+	private String agent;
+
+	@Label("Compiled")
+	@Description("Whether the program ran in the compiled tier")
+	private boolean compiled;
+
+	@Label("Steps")
+	@Description("Number of statements and conditions executed")
+	private long steps;
+
+	@Label("Outcome")
+	@Description("completed, interrupted, or the class of the exception that ended the execution")
+	private String outcome;
+
+	@Label("Line")
+	@Description("Line at which the next execution resumes")
+	private int line;
+
+	@Label("Column")
+	@Description("Column at which the next execution resumes")
+	private int column;
+
+	private static final EventType TYPE = EventType.getEventType(ProgramExecutionEvent.class);
+
+	/**
+	 * Returns a new event that has begun, or null if this type of event is not enabled in any
+	 * running recording.
+	 */
+	public static ProgramExecutionEvent beginIfEnabled() {
+		if ( ! TYPE.isEnabled() )
+			return null;
+		ProgramExecutionEvent event = new ProgramExecutionEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends this event, and records it with the given properties if it is enabled.
+	 */
+	public void finish(String agent, boolean compiled, long steps, String outcome, int line, int column) {
+		end();
+		if ( shouldCommit() ) {
+			this.agent = agent;
+			this.compiled = compiled;
+			this.steps = steps;
+			this.outcome = outcome;
+			this.line = line;
+			this.column = column;
+			commit();
+		}
+	}
+
+}
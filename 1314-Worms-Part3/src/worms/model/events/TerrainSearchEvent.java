@@ -0,0 +1,62 @@
+package worms.model.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event spanning a search of a world for a position near impassable terrain.
+ *   Such searches query the terrain many times, and dominate the duration of moves and of
+ *   the placement of new game objects.
+ * 
+ * @author Delphine Vandamme
+ *
+ */
+@Name("worms.TerrainSearch")
+@Label("Terrain Search")
+@Category({ "Worms", "Model" })
+@Description("A search of a world for a position near impassable terrain")
+@StackTrace(false)
+public class TerrainSearchEvent extends Event {
+
+	@Label("Method")
+	private String method;
+
+	@Label("Radius")
+	private double radius;
+
+	@Label("Found")
+	private boolean found;
+
+	private static final EventType TYPE = EventType.getEventType(TerrainSearchEvent.class);
+
+	/**
+	 * Returns a new event that has begun, or null if this type of event is not enabled in any
+	 * running recording, so that searches do not allocate events while the recorder is off.
+	 */
+	public static TerrainSearchEvent beginIfEnabled() {
+		if ( ! TYPE.isEnabled() )
+			return null;
+		TerrainSearchEvent event = new TerrainSearchEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends this event, and records it with the given properties if it is enabled.
+	 */
+	public void finish(String method, double radius, boolean found) {
+		end();
+		if ( shouldCommit() ) {
+			this.method = method;
+			this.radius = radius;
+			this.found = found;
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package worms.model.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event spanning the turn of a character, from the moment it becomes the
+ *   current player until the next turn starts.
+ * 
+ * @author Delphine Vandamme
+ *
+ */
+@Name("worms.Turn")
+@Label("Turn")
+@Category({ "Worms", "Model" })
+@Description("The turn of a character")
+@StackTrace(false)
+public class TurnEvent extends Event {
+
+	@Label("Character")
+	private String character;
+
+	@Label("Character Type")
+	private String characterType;
+
+	@Label("Program Controlled")
+	private boolean programControlled;
+
+	@Label("Action Points At Start")
+	private int actionPointsAtStart;
+
+	@Label("Action Points Used")
+	private int actionPointsUsed;
+
+	private static final EventType TYPE = EventType.getEventType(TurnEvent.class);
+
+	/**
+	 * Returns a new event that has begun, or null if this type of event is not enabled in any
+	 * running recording.
+	 */
+	public static TurnEvent beginIfEnabled() {
+		if ( ! TYPE.isEnabled() )
+			return null;
+		TurnEvent event = new TurnEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends this event, and records it with the given properties if it is enabled.
+	 * 
+	 * @param actionPointsAtStart
+	 *        The number of action points of the character at the start of its turn.
+	 * @param actionPoints
+	 *        The number of action points of the character at the end of its turn.
+	 */
+	public void finish(String character, String characterType, boolean programControlled, 
+			int actionPointsAtStart, int actionPoints) {
+		end();
+		if ( shouldCommit() ) {
+			this.character = character;
+			this.characterType = characterType;
+			this.programControlled = programControlled;
+			this.actionPointsAtStart = actionPointsAtStart;
+			this.actionPointsUsed = actionPointsAtStart - actionPoints;
+			commit();
+		}
+	}
+
+}
@@ -1,12 +1,48 @@
 package worms.programs;
 
+import worms.exceptions.InterruptException;
+import worms.gui.game.IActionHandler;
 import worms.model.Program;
+import worms.model.Worm;
 
 public class ActionStatement extends Statement {
 
 	public ActionStatement(Program program, int line, int column) {
 		super(program, line, column);
-		// TODO Auto-generated constructor stub
+		this.interruption = new InterruptException(line + 1, column + 1);
+	}
+
+	/**
+	 * @return the preallocated exception signaling that this action has failed
+	 */
+	public InterruptException getInterruption() {
+		return interruption;
+	}
+
+	private final InterruptException interruption;
+
+	/**
+	 * Writes code that registers a step, and loads the action handler of the program and its agent,
+	 * on which the action is performed.
+	 */
+	protected void compileActionStart(ProgramCompiler compiler) {
+		compiler.registerStep();
+		compiler.loadConstant(getProgram().getHandler(), IActionHandler.class);
+		compiler.loadConstant(getProgram(), Program.class);
+		compiler.invoke(Program.class, "getAgent");
+		compiler.checkCast(Worm.class);
+	}
+
+	/**
+	 * Writes code that throws the interruption of this action if the boolean on top of the
+	 * operand stack, the outcome of the action, is false.
+	 */
+	protected void compileInterruption(ProgramCompiler compiler) {
+		ProgramCompiler.Label isPerformed = new ProgramCompiler.Label();
+		compiler.jump(ProgramCompiler.IFNE, isPerformed);
+		compiler.loadConstant(getInterruption(), InterruptException.class);
+		compiler.throwException();
+		compiler.placeLabel(isPerformed);
 	}
 
 	@Override
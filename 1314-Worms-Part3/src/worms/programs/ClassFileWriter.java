@@ -0,0 +1,253 @@
+package worms.programs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A minimal writer of class files, as specified in chapter 4 of the Java Virtual Machine Specification.
+ *
+ * Only what ProgramCompiler needs is supported: constant pool entries for names, classes, doubles,
+ * fields and methods, fields without attributes, and methods with a Code attribute that may have a
+ * StackMapTable. The instructions and the stack map frames of a method are written by the caller.
+ *
+ * @author Delphine
+ *
+ */
+class ClassFileWriter {
+
+	/**
+	 * The version of the written class files (Java 17).
+	 */
+	static final int MAJOR_VERSION = 61;
+
+	static final int ACC_PUBLIC = 0x0001;
+	static final int ACC_PRIVATE = 0x0002;
+	static final int ACC_FINAL = 0x0010;
+	static final int ACC_SUPER = 0x0020;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	/**
+	 * Initializes this new writer for a class with the given access flags, internal name and
+	 * internal name of its superclass, without interfaces.
+	 */
+	ClassFileWriter(int access, String name, String superName) {
+		this.access = access;
+		this.thisClass = classIndex(name);
+		this.superClass = classIndex(superName);
+	}
+
+	private final int access;
+
+	private final int thisClass;
+
+	private final int superClass;
+
+	/**
+	 * Returns the index of the constant pool entry of the class with the given internal name.
+	 */
+	int getThisClassIndex() {
+		return thisClass;
+	}
+
+	int utf8Index(String value) {
+		Integer index = constantIndexes.get("U" + value);
+		if ( index != null )
+			return index;
+		try {
+			constantPool.writeByte(CONSTANT_UTF8);
+			constantPool.writeUTF(value);
+		} catch ( IOException exc ) {
+			throw new IllegalStateException(exc);
+		}
+		return addConstant("U" + value, 1);
+	}
+
+	int classIndex(String internalName) {
+		Integer index = constantIndexes.get("C" + internalName);
+		if ( index != null )
+			return index;
+		int name = utf8Index(internalName);
+		writeConstant(CONSTANT_CLASS, name);
+		return addConstant("C" + internalName, 1);
+	}
+
+	int doubleIndex(double value) {
+		String key = "D" + Double.doubleToRawLongBits(value);
+		Integer index = constantIndexes.get(key);
+		if ( index != null )
+			return index;
+		try {
+			constantPool.writeByte(CONSTANT_DOUBLE);
+			constantPool.writeDouble(value);
+		} catch ( IOException exc ) {
+			throw new IllegalStateException(exc);
+		}
+		// a double takes two entries of the constant pool
+		return addConstant(key, 2);
+	}
+
+	int fieldIndex(String owner, String name, String descriptor) {
+		return memberIndex(CONSTANT_FIELDREF, owner, name, descriptor);
+	}
+
+	int methodIndex(String owner, String name, String descriptor, boolean isInterface) {
+		return memberIndex(isInterface ? CONSTANT_INTERFACE_METHODREF : CONSTANT_METHODREF, owner, name, descriptor);
+	}
+
+	private int memberIndex(int tag, String owner, String name, String descriptor) {
+		String key = tag + owner + "." + name + ":" + descriptor;
+		Integer index = constantIndexes.get(key);
+		if ( index != null )
+			return index;
+		int ownerIndex = classIndex(owner);
+		int nameAndType = nameAndTypeIndex(name, descriptor);
+		writeConstant(tag, ownerIndex, nameAndType);
+		return addConstant(key, 1);
+	}
+
+	private int nameAndTypeIndex(String name, String descriptor) {
+		String key = "N" + name + ":" + descriptor;
+		Integer index = constantIndexes.get(key);
+		if ( index != null )
+			return index;
+		int nameIndex = utf8Index(name);
+		int descriptorIndex = utf8Index(descriptor);
+		writeConstant(CONSTANT_NAME_AND_TYPE, nameIndex, descriptorIndex);
+		return addConstant(key, 1);
+	}
+
+	private void writeConstant(int tag, int... indexes) {
+		try {
+			constantPool.writeByte(tag);
+			for (int index: indexes)
+				constantPool.writeShort(index);
+		} catch ( IOException exc ) {
+			throw new IllegalStateException(exc);
+		}
+	}
+
+	private int addConstant(String key, int size) {
+		int index = nbConstants;
+		nbConstants += size;
+		if ( nbConstants > 0xFFFF )
+			throw new IllegalArgumentException("Too many constants for a class file");
+		constantIndexes.put(key, index);
+		return index;
+	}
+
+	private final ByteArrayOutputStream constantPoolBytes = new ByteArrayOutputStream();
+
+	private final DataOutputStream constantPool = new DataOutputStream(constantPoolBytes);
+
+	private final Map<String, Integer> constantIndexes = new HashMap<String, Integer>();
+
+	/**
+	 * The number of entries of the constant pool, plus one: entry 0 is not used.
+	 */
+	private int nbConstants = 1;
+
+	/**
+	 * Adds a field without attributes with the given access flags, name and descriptor.
+	 */
+	void addField(int access, String name, String descriptor) {
+		try {
+			fields.writeShort(access);
+			fields.writeShort(utf8Index(name));
+			fields.writeShort(utf8Index(descriptor));
+			fields.writeShort(0);
+		} catch ( IOException exc ) {
+			throw new IllegalStateException(exc);
+		}
+		nbFields++;
+	}
+
+	private final ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+
+	private final DataOutputStream fields = new DataOutputStream(fieldBytes);
+
+	private int nbFields = 0;
+
+	/**
+	 * Adds a method with the given access flags, name, descriptor and code.
+	 *
+	 * @param  stackMapFrames
+	 *         The entries of the StackMapTable attribute of the code, or null if the code has no branches.
+	 * @param  nbStackMapFrames
+	 *         The number of entries in stackMapFrames.
+	 */
+	void addMethod(int access, String name, String descriptor, int maxStack, int maxLocals, byte[] code,
+			byte[] stackMapFrames, int nbStackMapFrames) {
+		if ( (code.length == 0) || (code.length > 0xFFFF) )
+			throw new IllegalArgumentException("Invalid code length: " + code.length);
+		try {
+			methods.writeShort(access);
+			methods.writeShort(utf8Index(name));
+			methods.writeShort(utf8Index(descriptor));
+			methods.writeShort(1);
+			int stackMapTableLength = (stackMapFrames == null) ? 0 : 8 + stackMapFrames.length;
+			methods.writeShort(utf8Index("Code"));
+			methods.writeInt(12 + code.length + stackMapTableLength);
+			methods.writeShort(maxStack);
+			methods.writeShort(maxLocals);
+			methods.writeInt(code.length);
+			methods.write(code);
+			methods.writeShort(0); // no exception handlers
+			if ( stackMapFrames == null )
+				methods.writeShort(0);
+			else {
+				methods.writeShort(1);
+				methods.writeShort(utf8Index("StackMapTable"));
+				methods.writeInt(2 + stackMapFrames.length);
+				methods.writeShort(nbStackMapFrames);
+				methods.write(stackMapFrames);
+			}
+		} catch ( IOException exc ) {
+			throw new IllegalStateException(exc);
+		}
+		nbMethods++;
+	}
+
+	private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+
+	private final DataOutputStream methods = new DataOutputStream(methodBytes);
+
+	private int nbMethods = 0;
+
+	/**
+	 * Returns the class file written so far.
+	 */
+	byte[] toByteArray() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(MAJOR_VERSION);
+			out.writeShort(nbConstants);
+			constantPoolBytes.writeTo(out);
+			out.writeShort(access);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(0); // no interfaces
+			out.writeShort(nbFields);
+			fieldBytes.writeTo(out);
+			out.writeShort(nbMethods);
+			methodBytes.writeTo(out);
+			out.writeShort(0); // no attributes
+		} catch ( IOException exc ) {
+			throw new IllegalStateException(exc);
+		}
+		return bytes.toByteArray();
+	}
+
+}
@@ -0,0 +1,73 @@
+package worms.programs;
+
+import worms.exceptions.IllegalTypeException;
+import worms.model.Program;
+import worms.programs.types.BoolType;
+import worms.programs.types.DoubleType;
+
+/**
+ * A statement obtained by compiling the statement tree of a program into a JVM class.
+ *
+ * The code of a compiled statement is an instance of a hidden class generated by ProgramCompiler,
+ * whose method execute runs the code that the statements and expressions of the tree have written
+ * with compile(ProgramCompiler). Executing a compiled statement therefore runs that method, not the
+ * statement tree.
+ *
+ * @author Delphine
+ *
+ */
+public class CompiledStatement extends Statement {
+
+	public CompiledStatement(Program program, Code code) {
+		super(program, 0, 0);
+		this.code = code;
+	}
+
+	/**
+	 * @return the generated code of this statement
+	 */
+	public Code getCode() {
+		return code;
+	}
+
+	private final Code code;
+
+	@Override
+	public void execute(int line, int column) {
+		code.execute(line, column);
+	}
+
+	/**
+	 * The superclass of the classes generated by ProgramCompiler.
+	 */
+	public static abstract class Code {
+
+		public abstract void execute(int line, int column);
+
+	}
+
+	/**
+	 * Returns the given value as a number, for generated code.
+	 *
+	 * @throws IllegalTypeException
+	 *         if the given value is not a number
+	 */
+	public static double doubleValue(Type value) throws IllegalTypeException {
+		if ( value.getType() != DoubleType.class )
+			throw new IllegalTypeException();
+		return ((DoubleType) value).getValue();
+	}
+
+	/**
+	 * Returns the given value as a boolean, for generated code.
+	 *
+	 * @throws IllegalTypeException
+	 *         if the given value is not a boolean
+	 */
+	public static boolean booleanValue(Type value) throws IllegalTypeException {
+		if ( value.getType() != BoolType.class )
+			throw new IllegalTypeException();
+		return ((BoolType) value).getValue();
+	}
+
+}
@@ -54,5 +54,32 @@ public abstract class Expression<T extends Type> {
 	
 	public abstract T evaluate();
 
+	/**
+	 * Writes code that evaluates this expression with the given compiler, and leaves its value
+	 * on the operand stack.
+	 * By default, the code evaluates this expression tree.
+	 */
+	public void compile(ProgramCompiler compiler) {
+		compiler.evaluateTree(this);
+	}
+
+	/**
+	 * Writes code that evaluates this expression as a number.
+	 * By default, the code converts the value of compile(ProgramCompiler).
+	 */
+	public void compileDouble(ProgramCompiler compiler) {
+		compile(compiler);
+		compiler.toDouble();
+	}
+
+	/**
+	 * Writes code that evaluates this expression as a boolean.
+	 * By default, the code converts the value of compile(ProgramCompiler).
+	 */
+	public void compileBoolean(ProgramCompiler compiler) {
+		compile(compiler);
+		compiler.toBoolean();
+	}
+
 
 }
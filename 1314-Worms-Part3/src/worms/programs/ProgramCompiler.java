@@ -0,0 +1,780 @@
+package worms.programs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import worms.model.Program;
+import worms.programs.types.BoolType;
+import worms.programs.types.DoubleType;
+
+/**
+ * A compiler of the statement trees of programs into JVM classes.
+ *
+ * The statement tree of a program is compiled into a single method: the method execute of a new final
+ * subclass of CompiledStatement.Code. Its class file is written by a ClassFileWriter, without any
+ * bytecode library, and defined as a hidden class of this package with MethodHandles.Lookup.defineHiddenClass.
+ * Hidden classes are not strongly reachable from their class loader, so the class of a program is
+ * unloaded together with the program.
+ *
+ * Statements and expressions write their own code with compile(ProgramCompiler), using the instructions
+ * of this compiler. The objects of the statement tree that the code needs, such as the program, its
+ * variables and its action handler, become final fields of the generated class. Statements and
+ * expressions that do not write their own code call their statement tree.
+ *
+ * Expressions are compiled in three ways: compileValue leaves a Type on the operand stack, compileDouble
+ * a double and compileBoolean a boolean, so that arithmetic and comparisons work on primitive values.
+ * The compiler keeps track of the types on the operand stack, and writes them as stack map frames at
+ * the targets of jumps, as the verifier requires.
+ *
+ * @author Delphine
+ *
+ */
+public class ProgramCompiler {
+
+	public static final int ICONST_0 = 0x03;
+	public static final int ICONST_1 = 0x04;
+	public static final int DCONST_0 = 0x0e;
+	public static final int DCONST_1 = 0x0f;
+	public static final int DADD = 0x63;
+	public static final int DSUB = 0x67;
+	public static final int DMUL = 0x6b;
+	public static final int DDIV = 0x6f;
+	public static final int IXOR = 0x82;
+	public static final int I2D = 0x87;
+	public static final int DCMPL = 0x97;
+	public static final int DCMPG = 0x98;
+	public static final int IFEQ = 0x99;
+	public static final int IFNE = 0x9a;
+	public static final int IFGE = 0x9c;
+	public static final int IFLE = 0x9e;
+	public static final int GOTO = 0xa7;
+
+	private static final int ACONST_NULL = 0x01;
+	private static final int SIPUSH = 0x11;
+	private static final int LDC2_W = 0x14;
+	private static final int DLOAD = 0x18;
+	private static final int ILOAD_1 = 0x1b;
+	private static final int ILOAD_2 = 0x1c;
+	private static final int ALOAD_0 = 0x2a;
+	private static final int ALOAD_1 = 0x2b;
+	private static final int AALOAD = 0x32;
+	private static final int DSTORE = 0x39;
+	private static final int POP2 = 0x58;
+	private static final int DUP = 0x59;
+	private static final int DUP_X1 = 0x5a;
+	private static final int DUP2_X2 = 0x5e;
+	private static final int SWAP = 0x5f;
+	private static final int RETURN = 0xb1;
+	private static final int GETFIELD = 0xb4;
+	private static final int PUTFIELD = 0xb5;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKESPECIAL = 0xb7;
+	private static final int INVOKESTATIC = 0xb8;
+	private static final int INVOKEINTERFACE = 0xb9;
+	private static final int NEW = 0xbb;
+	private static final int ATHROW = 0xbf;
+	private static final int CHECKCAST = 0xc0;
+
+	/**
+	 * The internal name of generated classes. A hidden class gets a unique name when it is defined.
+	 */
+	private static final String CLASS_NAME = "worms/programs/CompiledProgram";
+
+	private static final String SUPER_NAME = internalName(CompiledStatement.Code.class);
+
+	/**
+	 * The index of the first local variable of the method execute that is not a parameter:
+	 * local 0 holds the compiled code, locals 1 and 2 the line and column.
+	 */
+	private static final int FIRST_LOCAL = 3;
+
+	/**
+	 * Compiles the given statement of the given program into a new hidden class, and returns a new
+	 * instance of that class.
+	 *
+	 * @throws IllegalArgumentException
+	 *         The statement is too large to be compiled into a single method.
+	 */
+	public static CompiledStatement.Code compile(Program program, Statement statement)
+			throws IllegalArgumentException {
+		ProgramCompiler compiler = new ProgramCompiler(program);
+		compiler.compile(statement);
+		return compiler.defineCode();
+	}
+
+	private ProgramCompiler(Program program) {
+		this.program = program;
+	}
+
+	/**
+	 * Returns the program whose statement tree is compiled.
+	 */
+	public Program getProgram() {
+		return program;
+	}
+
+	private final Program program;
+
+	private final ClassFileWriter classFile = new ClassFileWriter(
+			ClassFileWriter.ACC_PUBLIC | ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER, CLASS_NAME, SUPER_NAME);
+
+	/**
+	 * Writes the constructor and the method execute, and defines the generated class.
+	 */
+	private CompiledStatement.Code defineCode() {
+		if ( isReachable() )
+			emitByte(RETURN);
+		classFile.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", 3, 2,
+				constructorCode(), null, 0);
+		byte[] prologue = prologueCode();
+		byte[] body = new byte[codeLength];
+		System.arraycopy(code, 0, body, 0, codeLength);
+		byte[] execute = new byte[prologue.length + body.length];
+		System.arraycopy(prologue, 0, execute, 0, prologue.length);
+		System.arraycopy(body, 0, execute, prologue.length, body.length);
+		classFile.addMethod(ClassFileWriter.ACC_PUBLIC, "execute", "(II)V", maxStack, getMaxLocals(),
+				execute, stackMapFrames(prologue.length), frames.size());
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile.toByteArray(), true);
+			return (CompiledStatement.Code) lookup.lookupClass().getConstructor(Object[].class)
+					.newInstance((Object) constantValues.toArray());
+		} catch ( ReflectiveOperationException exc ) {
+			throw new IllegalStateException(exc);
+		}
+	}
+
+	/**
+	 * Returns the code of the constructor, which stores each constant in its field.
+	 */
+	private byte[] constructorCode() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(ALOAD_0);
+			out.writeByte(INVOKESPECIAL);
+			out.writeShort(classFile.methodIndex(SUPER_NAME, "<init>", "()V", false));
+			for (int i = 0; i < constantValues.size(); i++) {
+				out.writeByte(ALOAD_0);
+				out.writeByte(ALOAD_1);
+				out.writeByte(SIPUSH);
+				out.writeShort(i);
+				out.writeByte(AALOAD);
+				out.writeByte(CHECKCAST);
+				out.writeShort(classFile.classIndex(internalName(constantTypes.get(i))));
+				out.writeByte(PUTFIELD);
+				out.writeShort(classFile.fieldIndex(CLASS_NAME, "c" + i, descriptor(constantTypes.get(i))));
+			}
+			out.writeByte(RETURN);
+		} catch ( IOException exc ) {
+			throw new IllegalStateException(exc);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Returns the code at the start of the method execute, which initializes all local variables,
+	 * so that every stack map frame can list all of them.
+	 */
+	private byte[] prologueCode() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		for (int local = FIRST_LOCAL; local < getMaxLocals(); local += 2) {
+			bytes.write(DCONST_0);
+			bytes.write(DSTORE);
+			bytes.write(local);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Returns the entries of the StackMapTable of the method execute, or null if it has no jumps.
+	 * Every entry is a full frame.
+	 */
+	private byte[] stackMapFrames(int offset) {
+		if ( frames.isEmpty() )
+			return null;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			int previous = -1;
+			for (Map.Entry<Integer, List<String>> frame: frames.entrySet()) {
+				int position = offset + frame.getKey();
+				out.writeByte(255);
+				out.writeShort(position - previous - 1);
+				previous = position;
+				out.writeShort(FIRST_LOCAL + nbDoubleLocals);
+				writeVerificationType(out, "L" + CLASS_NAME + ";");
+				writeVerificationType(out, "I");
+				writeVerificationType(out, "I");
+				for (int i = 0; i < nbDoubleLocals; i++)
+					writeVerificationType(out, "D");
+				out.writeShort(frame.getValue().size());
+				for (String type: frame.getValue())
+					writeVerificationType(out, type);
+			}
+		} catch ( IOException exc ) {
+			throw new IllegalStateException(exc);
+		}
+		return bytes.toByteArray();
+	}
+
+	private void writeVerificationType(DataOutputStream out, String type) throws IOException {
+		if ( type.equals("I") )
+			out.writeByte(1);
+		else if ( type.equals("D") )
+			out.writeByte(3);
+		else if ( type.equals("N") )
+			out.writeByte(5);
+		else if ( type.startsWith("L") ) {
+			out.writeByte(7);
+			out.writeShort(classFile.classIndex(type.substring(1, type.length() - 1)));
+		}
+		else if ( type.startsWith("[") ) {
+			out.writeByte(7);
+			out.writeShort(classFile.classIndex(type));
+		}
+		else
+			throw new IllegalStateException("No stack map frame for " + type);
+	}
+
+	/**
+	 * Writes code that executes the given statement.
+	 *   A missing statement fails with a NullPointerException, like in the interpreter.
+	 */
+	public void compile(Statement statement) {
+		if ( statement == null )
+			executeTree(null);
+		else
+			statement.compile(this);
+	}
+
+	/**
+	 * Writes code that evaluates the given expression, and leaves its value on the operand stack.
+	 *   A missing expression fails with a NullPointerException, like in the interpreter.
+	 */
+	public void compileValue(Expression<? extends Type> expression) {
+		if ( expression == null )
+			evaluateTree(null);
+		else
+			expression.compile(this);
+		pop(null);
+		push(descriptor(Type.class));
+	}
+
+	/**
+	 * Writes code that evaluates the given expression, and leaves its value as a double on the operand stack.
+	 *   The code fails with an IllegalTypeException if the value is not a number.
+	 */
+	public void compileDouble(Expression<? extends Type> expression) {
+		if ( expression == null ) {
+			evaluateTree(null);
+			toDouble();
+		}
+		else
+			expression.compileDouble(this);
+		requireTop("D");
+	}
+
+	/**
+	 * Writes code that evaluates the given expression, and leaves its value as a boolean on the operand stack.
+	 *   The code fails with an IllegalTypeException if the value is not a boolean.
+	 */
+	public void compileBoolean(Expression<? extends Type> expression) {
+		if ( expression == null ) {
+			evaluateTree(null);
+			toBoolean();
+		}
+		else
+			expression.compileBoolean(this);
+		requireTop("I");
+	}
+
+	/**
+	 * Writes code that executes the given statement tree.
+	 */
+	public void executeTree(Statement statement) {
+		if ( statement == null )
+			loadNull();
+		else
+			loadConstant(statement, Statement.class);
+		emitByte(ILOAD_1);
+		push("I");
+		emitByte(ILOAD_2);
+		push("I");
+		invoke(Statement.class, "execute", int.class, int.class);
+	}
+
+	/**
+	 * Writes code that evaluates the given expression tree, and leaves its value on the operand stack.
+	 */
+	public void evaluateTree(Expression<? extends Type> expression) {
+		if ( expression == null )
+			loadNull();
+		else
+			loadConstant(expression, Expression.class);
+		invoke(Expression.class, "evaluate");
+	}
+
+	/**
+	 * Writes code that converts the Type on top of the operand stack to a double.
+	 */
+	public void toDouble() {
+		invoke(CompiledStatement.class, "doubleValue", Type.class);
+	}
+
+	/**
+	 * Writes code that converts the Type on top of the operand stack to a boolean.
+	 */
+	public void toBoolean() {
+		invoke(CompiledStatement.class, "booleanValue", Type.class);
+	}
+
+	/**
+	 * Writes code that replaces the double on top of the operand stack by a new DoubleType.
+	 */
+	public void boxDouble() {
+		construct(DoubleType.class, double.class);
+	}
+
+	/**
+	 * Writes code that replaces the boolean on top of the operand stack by a new BoolType.
+	 */
+	public void boxBoolean() {
+		construct(BoolType.class, boolean.class);
+	}
+
+	/**
+	 * Writes code that registers a step of the program.
+	 */
+	public void registerStep() {
+		loadConstant(program, Program.class);
+		invoke(Program.class, "registerStep");
+	}
+
+	/**
+	 * Writes code that loads the given object, with the given type.
+	 *   The object becomes a final field of the generated class.
+	 *
+	 * @throws IllegalArgumentException
+	 *         The object is not of the given type.
+	 */
+	public void loadConstant(Object value, Class<?> type) throws IllegalArgumentException {
+		if ( ! type.isInstance(value) )
+			throw new IllegalArgumentException("Constant is not a " + type.getName());
+		int index = -1;
+		for (int i = 0; (i < constantValues.size()) && (index < 0); i++)
+			if ( (constantValues.get(i) == value) && (constantTypes.get(i) == type) )
+				index = i;
+		if ( index < 0 ) {
+			index = constantValues.size();
+			if ( index > Short.MAX_VALUE )
+				throw new IllegalArgumentException("Too many constants to compile");
+			constantValues.add(value);
+			constantTypes.add(type);
+			classFile.addField(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "c" + index, descriptor(type));
+		}
+		emitByte(ALOAD_0);
+		push("L" + CLASS_NAME + ";");
+		emitByte(GETFIELD);
+		emitShort(classFile.fieldIndex(CLASS_NAME, "c" + index, descriptor(type)));
+		pop(null);
+		push(descriptor(type));
+	}
+
+	private final List<Object> constantValues = new ArrayList<Object>();
+
+	private final List<Class<?>> constantTypes = new ArrayList<Class<?>>();
+
+	private void loadNull() {
+		emitByte(ACONST_NULL);
+		push("N");
+	}
+
+	/**
+	 * Writes code that loads the given double.
+	 */
+	public void loadDouble(double value) {
+		if ( Double.doubleToRawLongBits(value) == 0L )
+			emitByte(DCONST_0);
+		else if ( value == 1.0 )
+			emitByte(DCONST_1);
+		else {
+			emitByte(LDC2_W);
+			emitShort(classFile.doubleIndex(value));
+		}
+		push("D");
+	}
+
+	/**
+	 * Writes code that loads the given boolean.
+	 */
+	public void loadBoolean(boolean value) {
+		emitByte(value ? ICONST_1 : ICONST_0);
+		push("I");
+	}
+
+	/**
+	 * Returns the index of a new local variable holding a double, initialized to zero.
+	 */
+	public int allocateDouble() {
+		int local = FIRST_LOCAL + 2 * nbDoubleLocals;
+		if ( local + 1 > 0xFF )
+			throw new IllegalArgumentException("Too many local variables to compile");
+		nbDoubleLocals++;
+		return local;
+	}
+
+	private int nbDoubleLocals = 0;
+
+	private int getMaxLocals() {
+		return FIRST_LOCAL + 2 * nbDoubleLocals;
+	}
+
+	/**
+	 * Writes code that loads the double in the given local variable.
+	 */
+	public void loadDoubleLocal(int local) {
+		emitByte(DLOAD);
+		emitByte(local);
+		push("D");
+	}
+
+	/**
+	 * Writes code that stores the double on top of the operand stack in the given local variable.
+	 */
+	public void storeDoubleLocal(int local) {
+		pop("D");
+		emitByte(DSTORE);
+		emitByte(local);
+	}
+
+	/**
+	 * Writes code that calls the public method of the given class with the given name and parameter types.
+	 *   The arguments, and for an instance method the receiver, must be on the operand stack;
+	 *   they are replaced by the result of the method, if any.
+	 *
+	 * @throws IllegalArgumentException
+	 *         The given class has no such public method.
+	 */
+	public void invoke(Class<?> owner, String name, Class<?>... parameterTypes) throws IllegalArgumentException {
+		Method method;
+		try {
+			method = owner.getMethod(name, parameterTypes);
+		} catch ( NoSuchMethodException exc ) {
+			throw new IllegalArgumentException(exc);
+		}
+		boolean isStatic = Modifier.isStatic(method.getModifiers());
+		int nbArgumentSlots = 0;
+		StringBuilder descriptor = new StringBuilder("(");
+		for (Class<?> type: parameterTypes) {
+			descriptor.append(descriptor(type));
+			nbArgumentSlots += (type == double.class) ? 2 : 1;
+		}
+		descriptor.append(')').append(descriptor(method.getReturnType()));
+		for (int i = parameterTypes.length - 1; i >= 0; i--)
+			pop(verificationType(parameterTypes[i]));
+		if ( ! isStatic )
+			pop(null);
+		if ( isStatic )
+			emitByte(INVOKESTATIC);
+		else if ( owner.isInterface() )
+			emitByte(INVOKEINTERFACE);
+		else
+			emitByte(INVOKEVIRTUAL);
+		emitShort(classFile.methodIndex(internalName(owner), name, descriptor.toString(), owner.isInterface()));
+		if ( ! isStatic && owner.isInterface() ) {
+			emitByte(1 + nbArgumentSlots);
+			emitByte(0);
+		}
+		if ( method.getReturnType() != void.class )
+			push(verificationType(method.getReturnType()));
+	}
+
+	/**
+	 * Writes code that checks that the reference on top of the operand stack is of the given class.
+	 */
+	public void checkCast(Class<?> type) {
+		pop(null);
+		emitByte(CHECKCAST);
+		emitShort(classFile.classIndex(internalName(type)));
+		push(descriptor(type));
+	}
+
+	/**
+	 * Writes code that replaces the value on top of the operand stack by a new object of the given class,
+	 * constructed with that value as its only argument.
+	 */
+	private void construct(Class<?> type, Class<?> parameterType) {
+		String parameter = verificationType(parameterType);
+		requireTop(parameter);
+		boolean isWide = parameter.equals("D");
+		maxStack = Math.max(maxStack, getStackSize() + (isWide ? 4 : 2));
+		emitByte(NEW);
+		emitShort(classFile.classIndex(internalName(type)));
+		if ( isWide ) {
+			// value, new, new, value
+			emitByte(DUP);
+			emitByte(DUP2_X2);
+			emitByte(POP2);
+		}
+		else {
+			emitByte(DUP_X1);
+			emitByte(SWAP);
+		}
+		emitByte(INVOKESPECIAL);
+		emitShort(classFile.methodIndex(internalName(type), "<init>", "(" + descriptor(parameterType) + ")V", false));
+		pop(parameter);
+		push(descriptor(type));
+	}
+
+	/**
+	 * Writes the given instruction, which has no operands.
+	 *
+	 * @throws IllegalArgumentException
+	 *         The given instruction is not supported.
+	 */
+	public void emit(int opcode) throws IllegalArgumentException {
+		switch ( opcode ) {
+			case ICONST_0:
+			case ICONST_1:
+				push("I");
+				break;
+			case DCONST_0:
+			case DCONST_1:
+				push("D");
+				break;
+			case DADD:
+			case DSUB:
+			case DMUL:
+			case DDIV:
+				pop("D");
+				pop("D");
+				push("D");
+				break;
+			case IXOR:
+				pop("I");
+				pop("I");
+				push("I");
+				break;
+			case I2D:
+				pop("I");
+				push("D");
+				break;
+			case DCMPL:
+			case DCMPG:
+				pop("D");
+				pop("D");
+				push("I");
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported instruction: " + opcode);
+		}
+		emitByte(opcode);
+	}
+
+	/**
+	 * Writes code that throws the exception on top of the operand stack.
+	 */
+	public void throwException() {
+		pop(null);
+		emitByte(ATHROW);
+		stack = null;
+	}
+
+	/**
+	 * A position in the code, that is the target of jumps.
+	 */
+	public static final class Label {
+
+		private int offset = -1;
+
+		private List<String> stack = null;
+
+		private final List<Integer> jumps = new ArrayList<Integer>();
+
+	}
+
+	/**
+	 * Writes a jump to the given label, with the given instruction: GOTO, or a comparison of the
+	 * int on top of the operand stack with zero.
+	 *
+	 * @throws IllegalArgumentException
+	 *         The given instruction is not a supported jump.
+	 */
+	public void jump(int opcode, Label label) throws IllegalArgumentException {
+		if ( (opcode == IFEQ) || (opcode == IFNE) || (opcode == IFGE) || (opcode == IFLE) )
+			pop("I");
+		else if ( opcode != GOTO )
+			throw new IllegalArgumentException("Unsupported jump: " + opcode);
+		requireReachable();
+		mergeStack(label);
+		int position = codeLength;
+		emitByte(opcode);
+		if ( label.offset >= 0 )
+			emitShort(getJumpOffset(position, label.offset));
+		else {
+			label.jumps.add(position);
+			emitShort(0);
+		}
+		if ( opcode == GOTO )
+			stack = null;
+	}
+
+	/**
+	 * Places the given label at the current position in the code.
+	 *   Code that follows a GOTO or a throw can only be reached through a label.
+	 */
+	public void placeLabel(Label label) {
+		if ( label.offset >= 0 )
+			throw new IllegalStateException("The label has already been placed");
+		if ( isReachable() )
+			mergeStack(label);
+		else if ( label.stack == null )
+			throw new IllegalStateException("Unreachable code");
+		stack = new ArrayList<String>(label.stack);
+		label.offset = codeLength;
+		for (int position: label.jumps) {
+			int offset = getJumpOffset(position, label.offset);
+			code[position + 1] = (byte) (offset >> 8);
+			code[position + 2] = (byte) offset;
+		}
+		List<String> frame = frames.get(codeLength);
+		if ( frame == null )
+			frames.put(codeLength, label.stack);
+		else if ( ! frame.equals(label.stack) )
+			throw new IllegalStateException("Inconsistent operand stack at a label");
+	}
+
+	/**
+	 * Map registering, for each position in the code that is the target of jumps, the types on
+	 * the operand stack at that position.
+	 */
+	private final Map<Integer, List<String>> frames = new TreeMap<Integer, List<String>>();
+
+	private void mergeStack(Label label) {
+		if ( label.stack == null )
+			label.stack = new ArrayList<String>(stack);
+		else if ( ! label.stack.equals(stack) )
+			throw new IllegalStateException("Inconsistent operand stack at a label");
+	}
+
+	private static int getJumpOffset(int from, int to) throws IllegalArgumentException {
+		int offset = to - from;
+		if ( (offset < Short.MIN_VALUE) || (offset > Short.MAX_VALUE) )
+			throw new IllegalArgumentException("Statement too large to compile");
+		return offset;
+	}
+
+	/**
+	 * The types on the operand stack at the current position in the code, or null if the current
+	 * position cannot be reached. A double is a single element. Objects under construction are not
+	 * registered: they are only on the stack within construct, which has no jumps.
+	 */
+	private List<String> stack = new ArrayList<String>();
+
+	private int maxStack = 0;
+
+	private boolean isReachable() {
+		return stack != null;
+	}
+
+	private void requireReachable() {
+		if ( ! isReachable() )
+			throw new IllegalStateException("Unreachable code");
+	}
+
+	private int getStackSize() {
+		int size = 0;
+		for (String type: stack)
+			size += type.equals("D") ? 2 : 1;
+		return size;
+	}
+
+	private void push(String type) {
+		requireReachable();
+		stack.add(type);
+		maxStack = Math.max(maxStack, getStackSize());
+	}
+
+	private String peek() {
+		requireReachable();
+		if ( stack.isEmpty() )
+			throw new IllegalStateException("Empty operand stack");
+		return stack.get(stack.size() - 1);
+	}
+
+	/**
+	 * Removes the type on top of the operand stack, which must be the given type,
+	 * or a reference if the given type is null or a reference.
+	 */
+	private void pop(String type) {
+		String top = peek();
+		if ( (type == null) || ! (type.equals("I") || type.equals("D")) ) {
+			if ( top.equals("I") || top.equals("D") )
+				throw new IllegalStateException("Expected a reference on the operand stack, but found " + top);
+		}
+		else if ( ! top.equals(type) )
+			throw new IllegalStateException("Expected " + type + " on the operand stack, but found " + top);
+		stack.remove(stack.size() - 1);
+	}
+
+	private void requireTop(String type) {
+		if ( ! peek().equals(type) )
+			throw new IllegalStateException("Expected " + type + " on the operand stack, but found " + peek());
+	}
+
+	private void emitByte(int value) {
+		if ( codeLength == code.length ) {
+			byte[] larger = new byte[2 * code.length];
+			System.arraycopy(code, 0, larger, 0, codeLength);
+			code = larger;
+		}
+		code[codeLength++] = (byte) value;
+	}
+
+	private void emitShort(int value) {
+		emitByte(value >> 8);
+		emitByte(value);
+	}
+
+	private byte[] code = new byte[256];
+
+	private int codeLength = 0;
+
+	private static String internalName(Class<?> type) {
+		return type.getName().replace('.', '/');
+	}
+
+	private static String descriptor(Class<?> type) {
+		if ( type == void.class )
+			return "V";
+		if ( type == boolean.class )
+			return "Z";
+		if ( type == int.class )
+			return "I";
+		if ( type == double.class )
+			return "D";
+		if ( type.isPrimitive() )
+			throw new IllegalArgumentException("Unsupported type: " + type);
+		if ( type.isArray() )
+			return internalName(type);
+		return "L" + internalName(type) + ";";
+	}
+
+	/**
+	 * Returns the type on the operand stack of a value of the given class.
+	 */
+	private static String verificationType(Class<?> type) {
+		if ( (type == boolean.class) || (type == int.class) )
+			return "I";
+		return descriptor(type);
+	}
+
+}
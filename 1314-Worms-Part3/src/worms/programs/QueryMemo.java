@@ -0,0 +1,133 @@
+package worms.programs;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import worms.model.Program;
+import worms.model.World;
+
+/**
+ * A memo table for the results of pure query expressions of a program.
+ *
+ * The results stored in this table remain valid as long as the world in which the agent
+ * of the program lives has not been modified, i.e. as long as the modification count
+ * of that world does not change. The table is also cleared at the start of each turn.
+ *
+ * @author Delphine
+ *
+ */
+public class QueryMemo {
+
+	public QueryMemo(Program program) {
+		this.program = program;
+	}
+
+	private final Program program;
+
+	/**
+	 * @return the program
+	 */
+	public Program getProgram() {
+		return program;
+	}
+
+	/**
+	 * Returns the memoized result of the given query for the given argument,
+	 * or null if no valid result is available.
+	 */
+	public Type get(Expression<? extends Type> query, Object argument) {
+		if ( ! validate() )
+			return null;
+		Type result = results.get(new Key(query, argument));
+		if ( result == null )
+			misses++;
+		else
+			hits++;
+		return result;
+	}
+
+	/**
+	 * Stores the given result of the given query for the given argument and returns it.
+	 */
+	public <T extends Type> T put(Expression<? extends Type> query, Object argument, T result) {
+		if ( validate() )
+			results.put(new Key(query, argument), result);
+		return result;
+	}
+
+	/**
+	 * Removes all memoized results from this table.
+	 */
+	public void clear() {
+		results.clear();
+		world = null;
+	}
+
+	/**
+	 * Checks whether the stored results are still valid for the current world of the agent,
+	 * and clears them if they are not.
+	 *
+	 * @return False if the program has no agent in a world, in which case nothing can be memoized.
+	 */
+	private boolean validate() {
+		World current = (getProgram().getAgent() == null) ? null : getProgram().getAgent().getWorld();
+		if ( current == null ) {
+			clear();
+			return false;
+		}
+		if ( (current != world) || (current.getModificationCount() != modificationCount) ) {
+			results.clear();
+			world = current;
+			modificationCount = current.getModificationCount();
+		}
+		return true;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	private final Map<Key, Type> results = new HashMap<Key, Type>();
+
+	private World world = null;
+
+	private long modificationCount;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	/**
+	 * A key consisting of the identity of a query expression and the value of its argument.
+	 */
+	private static class Key {
+
+		private Key(Expression<? extends Type> query, Object argument) {
+			this.query = query;
+			this.argument = argument;
+		}
+
+		private final Expression<? extends Type> query;
+
+		private final Object argument;
+
+		@Override
+		public boolean equals(Object other) {
+			if ( ! (other instanceof Key) )
+				return false;
+			Key key = (Key) other;
+			return (key.query == query)
+					&& ( (argument == null) ? key.argument == null : argument.equals(key.argument) );
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(query) + ( (argument == null) ? 0 : argument.hashCode() );
+		}
+	}
+
+}
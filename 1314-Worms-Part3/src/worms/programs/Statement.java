@@ -17,6 +17,14 @@ public abstract class Statement {
 
 	public abstract void execute(int line, int column);
 
+	/**
+	 * Writes code that executes this statement with the given compiler.
+	 * By default, the code executes this statement tree.
+	 */
+	public void compile(ProgramCompiler compiler) {
+		compiler.executeTree(this);
+	}
+
 	/**
 	 * @return the line
 	 */
@@ -3,6 +3,7 @@ package worms.programs.expressions;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
 
@@ -32,4 +33,17 @@ public class AddExpression extends Expression<DoubleType> {
 		return ( double1.add(double2) );
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileDouble(compiler);
+		compiler.boxDouble();
+	}
+
+	@Override
+	public void compileDouble(ProgramCompiler compiler) {
+		compiler.compileDouble(e1);
+		compiler.compileDouble(e2);
+		compiler.emit(ProgramCompiler.DADD);
+	}
+
 }
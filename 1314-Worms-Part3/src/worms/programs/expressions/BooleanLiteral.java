@@ -2,6 +2,7 @@ package worms.programs.expressions;
 
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.types.*;
 
 public class BooleanLiteral extends Expression<BoolType> {
@@ -18,4 +19,14 @@ public class BooleanLiteral extends Expression<BoolType> {
 		return this.boolType;
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.loadConstant(boolType, BoolType.class);
+	}
+
+	@Override
+	public void compileBoolean(ProgramCompiler compiler) {
+		compiler.loadBoolean(boolType.getValue());
+	}
+
 }
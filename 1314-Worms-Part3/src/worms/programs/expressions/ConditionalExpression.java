@@ -3,6 +3,7 @@ package worms.programs.expressions;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.BoolType;
 
@@ -37,4 +38,17 @@ public class ConditionalExpression extends Expression<Type> {
 			return o.evaluate();
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		ProgramCompiler.Label isFalse = new ProgramCompiler.Label();
+		ProgramCompiler.Label end = new ProgramCompiler.Label();
+		compiler.compileBoolean(t);
+		compiler.jump(ProgramCompiler.IFEQ, isFalse);
+		compiler.compileValue(e);
+		compiler.jump(ProgramCompiler.GOTO, end);
+		compiler.placeLabel(isFalse);
+		compiler.compileValue(o);
+		compiler.placeLabel(end);
+	}
+
 }
@@ -2,6 +2,7 @@ package worms.programs.expressions;
 
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.types.DoubleType;
 
 public class DoubleLiteral extends Expression<DoubleType> {
@@ -19,4 +20,14 @@ public class DoubleLiteral extends Expression<DoubleType> {
 		
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.loadConstant(doubleType, DoubleType.class);
+	}
+
+	@Override
+	public void compileDouble(ProgramCompiler compiler) {
+		compiler.loadDouble(doubleType.getValue());
+	}
+
 }
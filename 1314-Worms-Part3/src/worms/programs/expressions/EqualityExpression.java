@@ -2,6 +2,7 @@ package worms.programs.expressions;
 
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.BoolType;
 
@@ -21,4 +22,17 @@ public class EqualityExpression extends Expression<BoolType> {
 		return new BoolType(e1.evaluate().equals(e2.evaluate()));
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileBoolean(compiler);
+		compiler.boxBoolean();
+	}
+
+	@Override
+	public void compileBoolean(ProgramCompiler compiler) {
+		compiler.compileValue(e1);
+		compiler.compileValue(e2);
+		compiler.invoke(Type.class, "equals", Object.class);
+	}
+
 }
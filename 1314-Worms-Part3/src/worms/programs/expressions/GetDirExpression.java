@@ -5,6 +5,7 @@ import worms.model.GameObject;
 import worms.model.MobileGameObject;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.QueryMemo;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
 import worms.programs.types.EntityType;
@@ -33,7 +34,11 @@ public class GetDirExpression extends Expression<DoubleType> {
 			throw new IllegalTypeException();
 		MobileGameObject mobileEntity = (MobileGameObject) object;
 		
-		return new DoubleType( mobileEntity.getDirection() );
+		QueryMemo memo = getProgram().getQueryMemo();
+		DoubleType result = (DoubleType) memo.get(this, mobileEntity);
+		if ( result != null )
+			return result;
+		return memo.put(this, mobileEntity, new DoubleType( mobileEntity.getDirection() ));
 	}
 
 }
@@ -3,6 +3,7 @@ package worms.programs.expressions;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.QueryMemo;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
 import worms.programs.types.WormEntityType;
@@ -27,7 +28,11 @@ public class GetMaxHPExpression extends Expression<DoubleType> {
 			throw new IllegalTypeException();
 		WormEntityType worm = (WormEntityType) this.entity.evaluate();
 		
-		return new DoubleType( worm.getValue().getMaxPoints() );
+		QueryMemo memo = getProgram().getQueryMemo();
+		DoubleType result = (DoubleType) memo.get(this, worm.getValue());
+		if ( result != null )
+			return result;
+		return memo.put(this, worm.getValue(), new DoubleType( worm.getValue().getMaxPoints() ));
 	}
 
 }
@@ -3,6 +3,7 @@ package worms.programs.expressions;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.QueryMemo;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
 import worms.programs.types.EntityType;
@@ -27,7 +28,11 @@ public class GetXExpression extends Expression<DoubleType> {
 			throw new IllegalTypeException();
 		EntityType entity = (EntityType) this.entity.evaluate();
 		
-		return new DoubleType( entity.getValue().getPosition().getX() );
+		QueryMemo memo = getProgram().getQueryMemo();
+		DoubleType result = (DoubleType) memo.get(this, entity.getValue());
+		if ( result != null )
+			return result;
+		return memo.put(this, entity.getValue(), new DoubleType( entity.getValue().getPosition().getX() ));
 	}
 
 }
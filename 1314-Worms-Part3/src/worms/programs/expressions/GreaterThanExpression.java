@@ -3,6 +3,7 @@ package worms.programs.expressions;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.BoolType;
 import worms.programs.types.DoubleType;
@@ -33,4 +34,25 @@ public class GreaterThanExpression extends Expression<BoolType> {
 		return new BoolType(double1.getValue() > double2.getValue() );
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileBoolean(compiler);
+		compiler.boxBoolean();
+	}
+
+	@Override
+	public void compileBoolean(ProgramCompiler compiler) {
+		ProgramCompiler.Label isFalse = new ProgramCompiler.Label();
+		ProgramCompiler.Label end = new ProgramCompiler.Label();
+		compiler.compileDouble(e1);
+		compiler.compileDouble(e2);
+		compiler.emit(ProgramCompiler.DCMPL);
+		compiler.jump(ProgramCompiler.IFLE, isFalse);
+		compiler.loadBoolean(true);
+		compiler.jump(ProgramCompiler.GOTO, end);
+		compiler.placeLabel(isFalse);
+		compiler.loadBoolean(false);
+		compiler.placeLabel(end);
+	}
+
 }
@@ -3,6 +3,7 @@ package worms.programs.expressions;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.BoolType;
 import worms.programs.types.DoubleType;
@@ -35,4 +36,17 @@ public class LessThanOrEqualToExpression extends Expression<BoolType> {
 		
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileBoolean(compiler);
+		compiler.boxBoolean();
+	}
+
+	@Override
+	public void compileBoolean(ProgramCompiler compiler) {
+		compiler.compileDouble(e1);
+		compiler.compileDouble(e2);
+		compiler.invoke(Util.class, "fuzzyLessThanOrEqualTo", double.class, double.class);
+	}
+
 }
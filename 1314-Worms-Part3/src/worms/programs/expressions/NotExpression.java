@@ -3,6 +3,7 @@ package worms.programs.expressions;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.BoolType;
 
@@ -30,4 +31,17 @@ public class NotExpression extends Expression<BoolType> {
 		return new BoolType( !bool.getValue() );
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileBoolean(compiler);
+		compiler.boxBoolean();
+	}
+
+	@Override
+	public void compileBoolean(ProgramCompiler compiler) {
+		compiler.compileBoolean(e);
+		compiler.loadBoolean(true);
+		compiler.emit(ProgramCompiler.IXOR);
+	}
+
 }
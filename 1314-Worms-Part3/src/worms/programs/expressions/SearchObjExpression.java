@@ -5,6 +5,7 @@ import worms.model.Position;
 import worms.model.Program;
 import worms.model.Worm;
 import worms.programs.Expression;
+import worms.programs.QueryMemo;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
 import worms.programs.types.EntityType;
@@ -24,8 +25,11 @@ public class SearchObjExpression extends Expression<EntityType> {
 	}
 	
 	public Worm getOverlappingWorm() {
+		return getOverlappingWorm( (Double) e.evaluate().getValue() );
+	}
+	
+	private Worm getOverlappingWorm(double angle) {
 		Worm actingWorm = (Worm) getProgram().getAgent();
-		double angle = (double) e.evaluate().getValue();
 		double step = actingWorm.getRadius()/10;
 	    double stepX = step * Math.cos(actingWorm.getDirection() + angle);
 	    double stepY = step * Math.sin(actingWorm.getDirection() + angle);
@@ -46,8 +50,13 @@ public class SearchObjExpression extends Expression<EntityType> {
 		if ( !isValidType(e) )
 			throw new IllegalTypeException();
 		
-		Worm overlappingWorm = getOverlappingWorm();
-		return new EntityType(overlappingWorm);
+		Double angle = (Double) e.evaluate().getValue();
+		QueryMemo memo = getProgram().getQueryMemo();
+		EntityType result = (EntityType) memo.get(this, angle);
+		if ( result != null )
+			return result;
+		Worm overlappingWorm = getOverlappingWorm(angle);
+		return memo.put(this, angle, new EntityType(overlappingWorm));
 		
 	}
 
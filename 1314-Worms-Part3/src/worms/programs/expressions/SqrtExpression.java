@@ -3,6 +3,7 @@ package worms.programs.expressions;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
 
@@ -29,4 +30,16 @@ public class SqrtExpression extends Expression<DoubleType> {
 		return double1.sqrt();
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileDouble(compiler);
+		compiler.boxDouble();
+	}
+
+	@Override
+	public void compileDouble(ProgramCompiler compiler) {
+		compiler.compileDouble(e);
+		compiler.invoke(Math.class, "sqrt", double.class);
+	}
+
 }
@@ -2,7 +2,10 @@ package worms.programs.expressions;
 
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
+import worms.programs.types.BoolType;
+import worms.programs.types.DoubleType;
 
 public class VariableAccessExpression extends Expression<Type> {
 
@@ -18,4 +21,41 @@ public class VariableAccessExpression extends Expression<Type> {
 		return getProgram().getGlobal(name);
 	}
 
+	/**
+	 * The variable is resolved once, when the program is compiled. A variable that does not exist
+	 * is looked up by the interpreter, so that it fails in the same way.
+	 */
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		Type global = getProgram().getGlobals().get(name);
+		if ( global == null )
+			super.compile(compiler);
+		else
+			compiler.loadConstant(global, Type.class);
+	}
+
+	@Override
+	public void compileDouble(ProgramCompiler compiler) {
+		Type global = getProgram().getGlobals().get(name);
+		if ( (global == null) || (global.getType() != DoubleType.class) )
+			super.compileDouble(compiler);
+		else {
+			compiler.loadConstant(global, DoubleType.class);
+			compiler.invoke(DoubleType.class, "getValue");
+			compiler.invoke(Double.class, "doubleValue");
+		}
+	}
+
+	@Override
+	public void compileBoolean(ProgramCompiler compiler) {
+		Type global = getProgram().getGlobals().get(name);
+		if ( (global == null) || (global.getType() != BoolType.class) )
+			super.compileBoolean(compiler);
+		else {
+			compiler.loadConstant(global, BoolType.class);
+			compiler.invoke(BoolType.class, "getValue");
+			compiler.invoke(Boolean.class, "booleanValue");
+		}
+	}
+
 }
@@ -3,8 +3,10 @@ package worms.programs.statements;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Statement;
 import worms.programs.Type;
+import worms.programs.types.DoubleType;
 
 public class AssignmentStatement extends Statement {
 
@@ -19,6 +21,7 @@ public class AssignmentStatement extends Statement {
 
 	@Override
 	public void execute(int line, int column) {
+		getProgram().registerStep();
 		Type global = getProgram().getGlobal(name);
 		if ( global.getType() != rhs.getType() )
 			throw new IllegalTypeException();
@@ -26,4 +29,28 @@ public class AssignmentStatement extends Statement {
 		
 	}
 
+	/**
+	 * The variable is resolved once, and numbers are assigned without an intermediate DoubleType.
+	 * An assignment that always fails is executed by the interpreter, so that it fails in the same way.
+	 */
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		Type global = getProgram().getGlobals().get(name);
+		if ( (global == null) || (rhs == null) || (global.getType() != rhs.getType()) )
+			super.compile(compiler);
+		else {
+			compiler.registerStep();
+			compiler.loadConstant(global, Type.class);
+			if ( global.getType() == DoubleType.class ) {
+				compiler.compileDouble(rhs);
+				compiler.invoke(Double.class, "valueOf", double.class);
+			}
+			else {
+				compiler.compileValue(rhs);
+				compiler.invoke(Type.class, "getValue");
+			}
+			compiler.invoke(Type.class, "setValue", Object.class);
+		}
+	}
+
 }
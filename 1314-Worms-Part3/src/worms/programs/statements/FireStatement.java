@@ -1,11 +1,12 @@
 package worms.programs.statements;
 
 import worms.exceptions.IllegalTypeException;
-import worms.exceptions.InterruptException;
+import worms.gui.game.IActionHandler;
 import worms.model.Program;
 import worms.model.Worm;
 import worms.programs.ActionStatement;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
 
@@ -25,12 +26,23 @@ public class FireStatement extends ActionStatement {
 	
 	@Override
 	public void execute(int line, int column) {
+		getProgram().registerStep();
 		if ( ! isValidType(yield) ) 
 			throw new IllegalTypeException();
 		DoubleType yield = (DoubleType) this.yield.evaluate();
 		
 		if ( ! getProgram().getHandler().fire( (Worm) getProgram().getAgent(), yield.intValue() ) )
-			throw new InterruptException(getLine() + 1, getColumn() + 1);
+			throw getInterruption();
+	}
+
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileActionStart(compiler);
+		compiler.compileDouble(yield);
+		compiler.boxDouble();
+		compiler.invoke(DoubleType.class, "intValue");
+		compiler.invoke(IActionHandler.class, "fire", Worm.class, int.class);
+		compileInterruption(compiler);
 	}
 
 }
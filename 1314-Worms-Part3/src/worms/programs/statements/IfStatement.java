@@ -3,6 +3,7 @@ package worms.programs.statements;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Statement;
 import worms.programs.Type;
 import worms.programs.types.BoolType;
@@ -34,6 +35,7 @@ public class IfStatement extends Statement {
 		if ( ! isValidType(condition) ) 
 			throw new IllegalTypeException();
 		BoolType condition = (BoolType) this.condition.evaluate();
+		getProgram().registerStep();
 		
 		if ( condition.getValue() ) 
 			then.execute(line, column);
@@ -41,4 +43,18 @@ public class IfStatement extends Statement {
 			otherwise.execute(line, column);
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		ProgramCompiler.Label isFalse = new ProgramCompiler.Label();
+		ProgramCompiler.Label end = new ProgramCompiler.Label();
+		compiler.compileBoolean(condition);
+		compiler.registerStep();
+		compiler.jump(ProgramCompiler.IFEQ, isFalse);
+		compiler.compile(then);
+		compiler.jump(ProgramCompiler.GOTO, end);
+		compiler.placeLabel(isFalse);
+		compiler.compile(otherwise);
+		compiler.placeLabel(end);
+	}
+
 }
@@ -1,9 +1,10 @@
 package worms.programs.statements;
 
-import worms.exceptions.InterruptException;
+import worms.gui.game.IActionHandler;
 import worms.model.Program;
 import worms.model.Worm;
 import worms.programs.ActionStatement;
+import worms.programs.ProgramCompiler;
 
 public class JumpStatement extends ActionStatement {
 
@@ -13,8 +14,16 @@ public class JumpStatement extends ActionStatement {
 
 	@Override
 	public void execute(int line, int column) {
+		getProgram().registerStep();
 		if ( ! getProgram().getHandler().jump( (Worm) getProgram().getAgent() ) )
-			throw new InterruptException(getLine() + 1, getColumn() + 1);
+			throw getInterruption();
+	}
+
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileActionStart(compiler);
+		compiler.invoke(IActionHandler.class, "jump", Worm.class);
+		compileInterruption(compiler);
 	}
 
 }
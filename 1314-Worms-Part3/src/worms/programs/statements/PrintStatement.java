@@ -1,7 +1,9 @@
 package worms.programs.statements;
 
+import worms.gui.game.IActionHandler;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Statement;
 import worms.programs.Type;
 
@@ -16,10 +18,21 @@ public class PrintStatement extends Statement {
 
 	@Override
 	public void execute(int line, int column) {
+		getProgram().registerStep();
 		String message = "null";
 		if (expression.evaluate().getValue() != null)
 			message = expression.evaluate().getValue().toString();
 		getProgram().getHandler().print(message);
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.registerStep();
+		compiler.loadConstant(getProgram().getHandler(), IActionHandler.class);
+		compiler.compileValue(expression);
+		compiler.invoke(Type.class, "getValue");
+		compiler.invoke(String.class, "valueOf", Object.class);
+		compiler.invoke(IActionHandler.class, "print", String.class);
+	}
+
 }
@@ -3,6 +3,7 @@ package worms.programs.statements;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Statement;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
@@ -29,10 +30,42 @@ public class RepeatStatement extends Statement {
 		DoubleType double1 = (DoubleType) e.evaluate();
 		
 		double cntr =  double1.roundToNearestInteger();
+		getProgram().registerStep();
 		while ( cntr != 0 ) {
 			s.execute(line, column);
 			cntr--;
+			getProgram().registerBackEdge();
+			getProgram().registerStep();
 		}	
 	}
 
+	/**
+	 * The counter is kept in a local variable of the generated method.
+	 */
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		ProgramCompiler.Label loop = new ProgramCompiler.Label();
+		ProgramCompiler.Label end = new ProgramCompiler.Label();
+		int cntr = compiler.allocateDouble();
+		compiler.compileDouble(e);
+		compiler.boxDouble();
+		compiler.invoke(DoubleType.class, "roundToNearestInteger");
+		compiler.emit(ProgramCompiler.I2D);
+		compiler.storeDoubleLocal(cntr);
+		compiler.registerStep();
+		compiler.placeLabel(loop);
+		compiler.loadDoubleLocal(cntr);
+		compiler.loadDouble(0);
+		compiler.emit(ProgramCompiler.DCMPL);
+		compiler.jump(ProgramCompiler.IFEQ, end);
+		compiler.compile(s);
+		compiler.loadDoubleLocal(cntr);
+		compiler.loadDouble(1);
+		compiler.emit(ProgramCompiler.DSUB);
+		compiler.storeDoubleLocal(cntr);
+		compiler.registerStep();
+		compiler.jump(ProgramCompiler.GOTO, loop);
+		compiler.placeLabel(end);
+	}
+
 }
@@ -3,6 +3,7 @@ package worms.programs.statements;
 import java.util.List;
 
 import worms.model.Program;
+import worms.programs.ProgramCompiler;
 import worms.programs.Statement;
 
 public class SequenceStatement extends Statement {
@@ -23,4 +24,10 @@ public class SequenceStatement extends Statement {
 			statement.execute(line, column);
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		for (Statement statement: statements)
+			compiler.compile(statement);
+	}
+
 }
@@ -2,6 +2,7 @@ package worms.programs.statements;
 
 import worms.model.Program;
 import worms.programs.ActionStatement;
+import worms.programs.ProgramCompiler;
 
 public class SkipStatement extends ActionStatement {
 
@@ -11,6 +12,12 @@ public class SkipStatement extends ActionStatement {
 
 	@Override
 	public void execute(int line, int column) {
+		getProgram().registerStep();
+	}
+
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compiler.registerStep();
 	}
 
 }
@@ -1,11 +1,12 @@
 package worms.programs.statements;
 
 import worms.exceptions.IllegalTypeException;
-import worms.exceptions.InterruptException;
+import worms.gui.game.IActionHandler;
 import worms.model.Program;
 import worms.model.Worm;
 import worms.programs.ActionStatement;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Type;
 import worms.programs.types.DoubleType;
 
@@ -24,13 +25,22 @@ public class TurnStatement extends ActionStatement {
 	
 	@Override
 	public void execute(int line, int column) {
+		getProgram().registerStep();
 		if ( ! isValidType(angle) )
 			throw new IllegalTypeException();
 		DoubleType angle = (DoubleType) this.angle.evaluate();
 		
 		if (! getProgram().getHandler().turn( (Worm) getProgram().getAgent(), angle.getValue() ) )
-			throw new InterruptException(getLine() + 1, getColumn() + 1);
+			throw getInterruption();
 
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		compileActionStart(compiler);
+		compiler.compileDouble(angle);
+		compiler.invoke(IActionHandler.class, "turn", Worm.class, double.class);
+		compileInterruption(compiler);
+	}
+
 }
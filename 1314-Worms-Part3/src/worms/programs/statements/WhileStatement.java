@@ -3,6 +3,7 @@ package worms.programs.statements;
 import worms.exceptions.IllegalTypeException;
 import worms.model.Program;
 import worms.programs.Expression;
+import worms.programs.ProgramCompiler;
 import worms.programs.Statement;
 import worms.programs.Type;
 import worms.programs.types.BoolType;
@@ -30,9 +31,26 @@ public class WhileStatement extends Statement {
 	public void execute(int line, int column) {
 		if ( ! isValidType(condition) ) 
 			throw new IllegalTypeException();
+		getProgram().registerStep();
 		while ( ((BoolType) this.condition.evaluate()).getValue() ) {
 			body.execute(line, column);
+			getProgram().registerBackEdge();
+			getProgram().registerStep();
 		}
 	}
 
+	@Override
+	public void compile(ProgramCompiler compiler) {
+		ProgramCompiler.Label loop = new ProgramCompiler.Label();
+		ProgramCompiler.Label end = new ProgramCompiler.Label();
+		compiler.registerStep();
+		compiler.placeLabel(loop);
+		compiler.compileBoolean(condition);
+		compiler.jump(ProgramCompiler.IFEQ, end);
+		compiler.compile(body);
+		compiler.registerStep();
+		compiler.jump(ProgramCompiler.GOTO, loop);
+		compiler.placeLabel(end);
+	}
+
 }
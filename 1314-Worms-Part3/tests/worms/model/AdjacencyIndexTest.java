@@ -0,0 +1,89 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdjacencyIndexTest {
+
+	private static World world;
+	private static AdjacencyIndex index;
+	private static final double[] RADII = { 0.2, 0.25, 0.5, 1.0 };
+	private static final boolean[][] passableMap = new boolean[40][60];
+
+	@Before
+	public void setUp() throws Exception {
+		for (int r = 0; r < passableMap.length; r++)
+			for (int c = 0; c < passableMap[r].length; c++)
+				passableMap[r][c] = (r < 30) && !((r >= 10) && (r < 16) && (c >= 20) && (c < 28));
+		world = new World(6, 4, passableMap, new Random(3));
+		index = new AdjacencyIndex(passableMap, 6, 4);
+	}
+
+	@Test
+	public void getContour_CellsAreAdjacent() {
+		for (double radius: RADII) {
+			AdjacencyIndex.Contour contour = index.getContour(radius);
+			assertTrue(contour.size() > 0);
+			for (int i = 0; i < contour.size(); i++)
+				assertTrue(world.isAdjacent(contour.getX(i), contour.getY(i), radius));
+		}
+	}
+
+	@Test
+	public void getContour_CoversAdjacentPixels() {
+		Random random = new Random(5);
+		for (double radius: RADII) {
+			AdjacencyIndex.Contour contour = index.getContour(radius);
+			boolean[] covered = new boolean[60 * 40];
+			for (int i = 0; i < contour.size(); i++)
+				covered[(int) (contour.getX(i) / 0.1) + 60 * (int) (contour.getY(i) / 0.1)] = true;
+			for (int i = 0; i < 10000; i++) {
+				double x = 6 * random.nextDouble(); double y = 4 * random.nextDouble();
+				if (world.isAdjacent(x, y, radius))
+					assertTrue(covered[(int) (x / 0.1) + 60 * (int) (y / 0.1)]);
+			}
+		}
+	}
+
+	@Test
+	public void isAdjacent_MatchesWorld() {
+		Random random = new Random(11);
+		for (int i = 0; i < 10000; i++) {
+			double x = 6 * random.nextDouble(); double y = 4 * random.nextDouble();
+			double radius = 0.1 + random.nextDouble();
+			assertEquals(world.isAdjacent(x, y, radius), index.isAdjacent(x, y, radius));
+			assertEquals(world.isImpassable(x, y, radius), index.isImpassable(x, y, radius));
+		}
+	}
+
+	@Test
+	public void getContour_SharedPerBucket() {
+		assertSame(index.getContour(0.5), index.getContour(0.501));
+		assertNotSame(index.getContour(0.5), index.getContour(0.52));
+	}
+
+	@Test
+	public void getContour_LeastRecentlyUsedDropped() {
+		AdjacencyIndex.Contour first = index.getContour(0.5);
+		for (int i = 1; i <= AdjacencyIndex.MAX_CONTOURS; i++)
+			index.getContour(0.5 + i * AdjacencyIndex.RADIUS_BUCKET);
+		assertNotSame(first, index.getContour(0.5));
+		double radius = 0.5 + AdjacencyIndex.MAX_CONTOURS * AdjacencyIndex.RADIUS_BUCKET;
+		assertSame(index.getContour(radius), index.getContour(radius));
+	}
+
+	@Test
+	public void getRandomContourPosition_IsAdjacent() {
+		for (int i = 0; i < 100; i++) {
+			double radius = 0.25 + i / 200.0;
+			Position position = world.getRandomContourPosition(radius);
+			assertNotNull(position);
+			assertTrue(world.isAdjacent(position, radius));
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.game.IActionHandler;
+
+public class ModelStatisticsTest {
+
+	private static final boolean[][] passableMap = new boolean[][] {
+			{ false, false, false, false, false},
+			{ false, false, false, false, false},
+			{ true,  true,  true,  true,  true },
+			{ true,  true,  true,  true,  true },
+			{ true,  true,  true,  true,  true } };
+
+	private static final IActionHandler handler = new IActionHandler() {
+		public boolean turn(Worm worm, double angle) { return true; }
+		public boolean move(Worm worm) { return true; }
+		public boolean jump(Worm worm) { return true; }
+		public boolean fire(Worm worm, int propulsion) { return true; }
+		public boolean toggleWeapon(Worm worm) { return true; }
+		public void print(String message) { }
+	};
+
+	private ModelStatistics statistics;
+	private World world;
+
+	@Before
+	public void setUp() throws Exception {
+		statistics = ModelStatistics.getInstance();
+		world = new World(5, 5, passableMap, new Random(3));
+	}
+
+	@Test
+	public void publishedAsManagementBean() throws Exception {
+		assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(ModelStatistics.OBJECT_NAME)));
+	}
+
+	@Test
+	public void isImpassable_Counted() throws Exception {
+		long before = statistics.getTerrainQueries();
+		world.isImpassable(new Position(2.5, 1), 0.5);
+		world.isAdjacent(new Position(2.5, 1), 0.5);
+		assertTrue(statistics.getTerrainQueries() - before >= 3);
+	}
+
+	@Test
+	public void adjacencyIndex_Counted() throws Exception {
+		AdjacencyIndex index = new AdjacencyIndex(passableMap, 5, 5);
+		long before = statistics.getTerrainQueries();
+		index.isImpassable(2.5, 1, 0.5);
+		index.isAdjacent(2.5, 1, 0.5);
+		assertEquals(before + 2, statistics.getTerrainQueries());
+	}
+
+	@Test
+	public void getLiveObjectsByType_CountsWorms() throws Exception {
+		long before = count("Worm");
+		Worm worm = new Worm(world, world.getRandomAdjacentPosition(0.5), 0, 0.5, "Test", null);
+		assertEquals(before + 1, count("Worm"));
+		worm.terminate();
+		assertEquals(before, count("Worm"));
+	}
+
+	/**
+	 * A class of worms that are only created in worlds that are dropped.
+	 */
+	private static class DroppedWorm extends Worm {
+		DroppedWorm(World world) {
+			super(world, world.getRandomAdjacentPosition(0.5), 0, 0.5, "Dropped", null);
+		}
+	}
+
+	@Test
+	public void getLiveObjectsByType_DroppedWorldNotCounted() throws Exception {
+		addDroppedWorm();
+		assertEquals(1, count("DroppedWorm"));
+		for (int i = 0; (i < 100) && (count("DroppedWorm") > 0); i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(0, count("DroppedWorm"));
+	}
+
+	private void addDroppedWorm() {
+		new DroppedWorm(new World(5, 5, passableMap, new Random(3)));
+	}
+
+	private long count(String type) {
+		Long result = statistics.getLiveObjectsByType().get(type);
+		return (result == null) ? 0 : result;
+	}
+
+	@Test
+	public void jumpTime_CountsIterations() throws Exception {
+		Worm worm = new Worm(world, world.getRandomAdjacentPosition(0.5), Math.PI / 2, 0.5, "Test", null);
+		statistics.reset();
+		worm.jumpTime(1e-4);
+		assertTrue(statistics.getAverageJumpSolverIterations() > 1);
+	}
+
+	@Test
+	public void execute_SameStepsInBothTiers() throws Exception {
+		String text = "double x; double y; x := 0; while (x < 3) { y := 0; while (y < 2) { print x + y; y := y + 1; } x := x + 1; } if (x == 3) then { move; } else { jump; }";
+		assertEquals(stepsPerTurn(text, Integer.MAX_VALUE), stepsPerTurn(text, 0), 0);
+	}
+
+	private double stepsPerTurn(String text, int hotLoopThreshold) {
+		Program program = new Program(text, handler);
+		program.parse();
+		program.setHotLoopThreshold(hotLoopThreshold);
+		new Worm(world, world.getRandomAdjacentPosition(0.5), 0, 0.5, "Test", program);
+		statistics.reset();
+		program.execute();
+		return statistics.getInterpreterStepsPerTurn();
+	}
+
+	@Test
+	public void reset_ClearsCounters() throws Exception {
+		world.isImpassable(new Position(2.5, 1), 0.5);
+		statistics.reset();
+		assertEquals(0, statistics.getTerrainQueries());
+		assertEquals(0, statistics.getQueryMemoHitRate(), 0);
+	}
+
+}
@@ -0,0 +1,209 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import worms.gui.game.IActionHandler;
+import worms.model.programs.ParseOutcome;
+
+public class ProgramTierTest {
+
+	private static final boolean[][] passableMap = new boolean[][] {
+			{ false, false, false, false, false},
+			{ false, false, false, false, false},
+			{ true,  true,  true,  true,  true },
+			{ true,  true,  true,  true,  true },
+			{ true,  true,  true,  true,  true } };
+
+	private static final int NB_TURNS = 6;
+
+	private static final int ACTIONS_PER_TURN = 25;
+
+	/**
+	 * An action handler that records all actions of a program, and only allows
+	 * a limited number of actions per turn.
+	 */
+	private static class RecordingActionHandler implements IActionHandler {
+
+		private final List<String> log = new ArrayList<String>();
+
+		private int budget;
+
+		private boolean record(String action) {
+			log.add(action);
+			return budget-- > 0;
+		}
+
+		@Override
+		public boolean turn(Worm worm, double angle) {
+			return record("turn " + angle);
+		}
+
+		@Override
+		public boolean move(Worm worm) {
+			return record("move");
+		}
+
+		@Override
+		public boolean jump(Worm worm) {
+			return record("jump");
+		}
+
+		@Override
+		public boolean fire(Worm worm, int propulsion) {
+			return record("fire " + propulsion);
+		}
+
+		@Override
+		public boolean toggleWeapon(Worm worm) {
+			return record("toggleweap");
+		}
+
+		@Override
+		public void print(String message) {
+			log.add("print " + message);
+		}
+	}
+
+	private static String readProgram(File file) throws IOException {
+		StringBuilder text = new StringBuilder();
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ( (line = reader.readLine()) != null )
+				text.append(line).append('\n');
+		} finally {
+			reader.close();
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Runs the given program text for a number of turns with the given hot loop threshold,
+	 * and returns the log of all actions, turn ends and failures.
+	 */
+	private static List<String> run(String programText, int hotLoopThreshold) {
+		RecordingActionHandler handler = new RecordingActionHandler();
+		Program program = new Program(programText, handler);
+		try {
+			ParseOutcome<?> outcome = program.parse();
+			if ( ! outcome.isSuccess() ) {
+				handler.log.add("parse failure");
+				return handler.log;
+			}
+		} catch (RuntimeException exc) {
+			handler.log.add("parse failure " + exc.getClass().getName());
+			return handler.log;
+		}
+		program.setHotLoopThreshold(hotLoopThreshold);
+		World world = new World(5, 5, passableMap, new Random(3));
+		new Worm(world, world.getRandomAdjacentPosition(0.5), 0, 0.5, "Test", program);
+		try {
+			for (int turn = 0; turn < NB_TURNS; turn++) {
+				handler.budget = ACTIONS_PER_TURN;
+				program.execute();
+				handler.log.add("end of turn " + program.getLine() + ":" + program.getColumn());
+			}
+		} catch (RuntimeException exc) {
+			handler.log.add("failure " + exc.getClass().getName());
+		}
+		return handler.log;
+	}
+
+	private static File[] getProgramFiles() {
+		File[] files = new File("programs").listFiles();
+		assertNotNull("The programs directory cannot be found", files);
+		List<File> result = new ArrayList<File>();
+		for (File file: files)
+			if ( file.getName().endsWith(".txt") )
+				result.add(file);
+		return result.toArray(new File[result.size()]);
+	}
+
+	@Test
+	public void compiledTier_SameBehaviourAsInterpreter() throws Exception {
+		for (File file: getProgramFiles()) {
+			String text = readProgram(file);
+			List<String> interpreted = run(text, Integer.MAX_VALUE);
+			List<String> compiled = run(text, 0);
+			assertEquals(file.getName(), interpreted, compiled);
+		}
+	}
+
+	@Test
+	public void promotedTier_SameBehaviourAsInterpreter() throws Exception {
+		for (File file: getProgramFiles()) {
+			String text = readProgram(file);
+			List<String> interpreted = run(text, Integer.MAX_VALUE);
+			List<String> promoted = run(text, 5);
+			assertEquals(file.getName(), interpreted, promoted);
+		}
+	}
+
+	@Test
+	public void compiledTier_Loops() throws Exception {
+		String text = "double x; double y; x := 0; while (x < 3) { y := 0; while (y < 2) { print x + y; y := y + 1; } x := x + 1; } if (x == 3) then { move; } else { jump; }";
+		assertEquals(run(text, Integer.MAX_VALUE), run(text, 0));
+	}
+
+	@Test
+	public void execute_PromotedAfterThreshold() throws Exception {
+		Program program = new Program("double x; while (x < 10) { x := x + 1; }", new RecordingActionHandler());
+		program.parse();
+		program.setHotLoopThreshold(10);
+		World world = new World(5, 5, passableMap, new Random(3));
+		new Worm(world, world.getRandomAdjacentPosition(0.5), 0, 0.5, "Test", program);
+		program.execute();
+		assertFalse(program.isCompiled());
+		assertEquals(10, program.getNbBackEdges());
+		program.execute();
+		assertTrue(program.isCompiled());
+		assertEquals(10, program.getNbBackEdges());
+	}
+
+	@Test
+	public void compile_GeneratesHiddenClass() throws Exception {
+		Program program = new Program("double x; while (x < 3) { x := x + 1; print x; }", new RecordingActionHandler());
+		program.parse();
+		program.setHotLoopThreshold(0);
+		World world = new World(5, 5, passableMap, new Random(3));
+		new Worm(world, world.getRandomAdjacentPosition(0.5), 0, 0.5, "Test", program);
+		program.execute();
+		assertTrue(program.isCompiled());
+		assertTrue(program.getCompiledStatement().getCode().getClass().isHidden());
+	}
+
+	@Test
+	public void execute_FailedActionInterruptsProgram() throws Exception {
+		RecordingActionHandler handler = new RecordingActionHandler();
+		Program program = new Program("skip;\n  move;\nprint 1;", handler);
+		program.parse();
+		World world = new World(5, 5, passableMap, new Random(3));
+		new Worm(world, world.getRandomAdjacentPosition(0.5), 0, 0.5, "Test", program);
+		handler.budget = 0;
+		program.execute();
+		assertEquals(3, program.getLine());
+		assertEquals(3, program.getColumn());
+		assertFalse(handler.log.contains("print 1.0"));
+	}
+
+	@Test
+	public void interruptException_Stackless() throws Exception {
+		assertEquals(0, new worms.exceptions.InterruptException(1, 1).getStackTrace().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setHotLoopThreshold_Negative() throws Exception {
+		new Program("skip;", new RecordingActionHandler()).setHotLoopThreshold(-1);
+	}
+
+}
@@ -0,0 +1,77 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryMemoTest {
+
+	private static final boolean[][] passableMap = new boolean[][] {
+			{ true,  true,  true,  true,  true,  true,  true,  true,  true,  true },
+			{ true,  true,  true,  true,  true,  true,  true,  true,  true,  true },
+			{ true,  true,  true,  true,  true,  true,  true,  true,  true,  true },
+			{ true,  true,  true,  true,  true,  true,  true,  true,  true,  true },
+			{ false, false, false, false, false, false, false, false, false, false } };
+
+	/**
+	 * An action handler that performs the actions of a program on the model, and records
+	 * the messages it prints.
+	 */
+	private static class RecordingActionHandler extends SimpleActionHandler {
+
+		private final List<String> messages = new ArrayList<String>();
+
+		private RecordingActionHandler() {
+			super(new Facade());
+		}
+
+		@Override
+		public void print(String message) {
+			messages.add(message);
+		}
+	}
+
+	private World world;
+	private RecordingActionHandler handler;
+
+	@Before
+	public void setUp() throws Exception {
+		world = new World(10, 5, passableMap, new Random(3));
+		handler = new RecordingActionHandler();
+	}
+
+	private Program createProgram(String text) {
+		Program program = new Program(text, handler);
+		program.parse();
+		new Worm(world, new Position(2, 1.5), 0, 0.5, "Test", program);
+		return program;
+	}
+
+	@Test
+	public void execute_RepeatedQueryIsHit() throws Exception {
+		Program program = createProgram("print getx self; print getx self;");
+		long hits = program.getQueryMemo().getHits();
+		program.execute();
+		assertTrue(program.getQueryMemo().getHits() > hits);
+		assertEquals(2, handler.messages.size());
+		assertEquals(handler.messages.get(0), handler.messages.get(1));
+	}
+
+	@Test
+	public void execute_QueryAfterMoveNotMemoized() throws Exception {
+		Program program = createProgram("print getx self; move; print getx self;");
+		double x = program.getAgent().getPosition().getX();
+		program.execute();
+		double newX = program.getAgent().getPosition().getX();
+		assertTrue(newX != x);
+		assertEquals(2, handler.messages.size());
+		assertEquals(x, Double.parseDouble(handler.messages.get(0)), 1e-9);
+		assertEquals(newX, Double.parseDouble(handler.messages.get(1)), 1e-9);
+	}
+
+}
@@ -2,6 +2,7 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -474,4 +475,157 @@ public class WorldTest {
 		assertTrue(newWorld.isAdjacent(pos, 0.5));
 	}
 	
+	@Test
+	public void testGetModificationCount_ChangesOfGameObjects() {
+		long count = world.getModificationCount();
+		worm.setPosition(worm.getPosition().addToX(0.1));
+		assertTrue(world.getModificationCount() > count);
+		count = world.getModificationCount();
+		worm.setDirection(1);
+		assertTrue(world.getModificationCount() > count);
+		count = world.getModificationCount();
+		worm.setHitPoints(worm.getHitPoints() - 1);
+		assertTrue(world.getModificationCount() > count);
+		count = world.getModificationCount();
+		worm.setHitPoints(worm.getHitPoints());
+		assertEquals(count, world.getModificationCount());
+	}
+	
+	@Test
+	public void testGetModificationCount_Membership() {
+		long count = world.getModificationCount();
+		world.addRandomWorm(null);
+		assertTrue(world.getModificationCount() > count);
+		count = world.getModificationCount();
+		world.removeAsGameObject(worm);
+		assertTrue(world.getModificationCount() > count);
+	}
+	
+	@Test
+	public void testPublishSnapshot_CapturesState() {
+		world.publishSnapshot();
+		WorldSnapshot snapshot = world.getSnapshot();
+		assertEquals(world.getModificationCount(), snapshot.getVersion());
+		assertEquals(world.getAllGameObjects().size(), snapshot.getObjects().size());
+		WorldSnapshot.ObjectSnapshot state = snapshot.getSnapshotOf(worm);
+		assertEquals(worm.getPosition().getX(), state.getX(), EPS);
+		assertEquals(worm.getPosition().getY(), state.getY(), EPS);
+		assertEquals(worm.getHitPoints(), state.getHitPoints());
+		assertEquals("Test", state.getName());
+	}
+	
+	@Test
+	public void testPublishSnapshot_Immutable() {
+		world.publishSnapshot();
+		WorldSnapshot snapshot = world.getSnapshot();
+		double x = worm.getPosition().getX();
+		worm.setPosition(worm.getPosition().addToX(0.1));
+		assertEquals(x, snapshot.getSnapshotOf(worm).getX(), EPS);
+		world.publishSnapshot();
+		assertNotSame(snapshot, world.getSnapshot());
+		assertEquals(x + 0.1, world.getSnapshot().getSnapshotOf(worm).getX(), EPS);
+	}
+	
+	@Test
+	public void testPublishSnapshot_UnmodifiedWorld() {
+		world.publishSnapshot();
+		WorldSnapshot snapshot = world.getSnapshot();
+		world.publishSnapshot();
+		assertSame(snapshot, world.getSnapshot());
+	}
+	
+	@Test
+	public void testPublishSnapshot_ActionPointsChanged() {
+		world.publishSnapshot();
+		WorldSnapshot snapshot = world.getSnapshot();
+		worm.setActionPoints(worm.getActionPoints() - 1);
+		world.publishSnapshot();
+		assertNotSame(snapshot, world.getSnapshot());
+		assertEquals(worm.getActionPoints(), world.getSnapshot().getSnapshotOf(worm).getActionPoints());
+	}
+	
+	@Test
+	public void testListener_ReceivesChanges() {
+		final List<WorldEvent> events = new ArrayList<WorldEvent>();
+		world.addListener(new WorldListener() {
+			@Override
+			public void worldChanged(WorldEvent event) {
+				events.add(event);
+			}
+		});
+		worm.setPosition(worm.getPosition().addToX(0.1));
+		worm.setHitPoints(worm.getHitPoints() - 1);
+		worm.setHitPoints(worm.getHitPoints());
+		worm.terminate();
+		assertEquals(3, events.size());
+		assertEquals(WorldEvent.Type.MOVED, events.get(0).getType());
+		assertEquals(WorldEvent.Type.HIT_POINTS_CHANGED, events.get(1).getType());
+		assertEquals(WorldEvent.Type.TERMINATED, events.get(2).getType());
+		assertSame(worm, events.get(2).getObject());
+	}
+	
+	@Test
+	public void testRemoveListener() {
+		final List<WorldEvent> events = new ArrayList<WorldEvent>();
+		WorldListener listener = new WorldListener() {
+			@Override
+			public void worldChanged(WorldEvent event) {
+				events.add(event);
+			}
+		};
+		world.addListener(listener);
+		world.removeListener(listener);
+		worm.setPosition(worm.getPosition().addToX(0.1));
+		assertTrue(events.isEmpty());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddListener_Null() {
+		world.addListener(null);
+	}
+	
+	@Test
+	public void getAdjacentorPassablePositionTo_RepeatedSearch() {
+		Position first = world.getAdjacentorPassablePositionTo(worm, worm.getRadius());
+		assertSame(first, world.getAdjacentorPassablePositionTo(worm, worm.getRadius()));
+		worm.setPosition(worm.getPosition().addToX(0.1));
+		Position moved = world.getAdjacentorPassablePositionTo(worm, worm.getRadius());
+		worm.setPosition(worm.getPosition().addToX(-0.1));
+		Position back = world.getAdjacentorPassablePositionTo(worm, worm.getRadius());
+		assertEquals(first.getX(), back.getX(), EPS);
+		assertEquals(first.getY(), back.getY(), EPS);
+		assertNotSame(back, moved);
+	}
+	
+	@Test
+	public void getRandomAdjacentPosition_MatchesEpsilonWalk() {
+		boolean[][] map = new boolean[40][60];
+		for (int r = 0; r < map.length; r++)
+			for (int c = 0; c < map[r].length; c++)
+				map[r][c] = (r < 30) && !((r >= 10) && (r < 16) && (c >= 20) && (c < 28))
+								     && !((r >= 5) && (r < 8) && (c >= 45) && (c < 55));
+		for (int seed = 0; seed < 20; seed++) {
+			for (double radius: new double[] { 0.2, 0.5 }) {
+				World searched = new World(6, 4, map, new Random(seed));
+				World walked = new World(6, 4, map, new Random(seed));
+				Position result = searched.getRandomAdjacentPosition(radius);
+				Position start = walked.getRandomPerimeterPosition(radius);
+				double maxDistance = start.getDistanceTo(new Position(3, 2));
+				Position expected = null;
+				for (double distance = EPS; (expected == null) && (distance <= maxDistance); distance += EPS) {
+					Position position = new Position(start.getX() + distance * (3 - start.getX()) / maxDistance,
+													  start.getY() + distance * (2 - start.getY()) / maxDistance);
+					if (walked.isAdjacent(position, radius))
+						expected = position;
+				}
+				if (expected == null)
+					assertNull(result);
+				else {
+					assertTrue(searched.isAdjacent(result, radius));
+					assertEquals(0, expected.getDistanceTo(result), 2 * EPS);
+				}
+			}
+		}
+	}
+	
 }
\ No newline at end of file
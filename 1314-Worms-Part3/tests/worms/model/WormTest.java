@@ -533,6 +533,25 @@ public class WormTest {
 		assertTrue(worm.canFall());
 	}
 	
+	@Test
+	public void testFall_LandsAsStepwiseFall() {
+		boolean[][] map = new boolean[200][40];
+		for (int r = 0; r < map.length; r++)
+			for (int c = 0; c < map[r].length; c++)
+				map[r][c] = (r < 180) && !((r >= 100) && (r < 104) && (c >= 5) && (c < 15));
+		World tallWorld = new World(4, 20, map, new Random(1));
+		for (double x = 0.6; x < 3.5; x += 0.15) {
+			Worm faller = new Worm(tallWorld, new Position(x, 19), 0, 0.5, "Faller", null);
+			double step = faller.getRadius() / 10;
+			double y = 19;
+			while (faller.canFall(x, y))
+				y = y - step;
+			faller.fall();
+			assertEquals(y, faller.getPosition().getY(), 1e-9);
+			faller.terminate();
+		}
+	}
+	
 	@Test
 	public void testCanFall_FromAdjacentPos() {
 		Worm worm = new Worm( world, world.getRandomAdjacentPosition(0.5), 0, 0.5, "Test", null);
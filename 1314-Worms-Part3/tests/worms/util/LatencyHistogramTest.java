@@ -0,0 +1,68 @@
+package worms.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	private LatencyHistogram histogram;
+
+	@Before
+	public void setUp() throws Exception {
+		histogram = new LatencyHistogram(Long.MAX_VALUE / 4);
+	}
+
+	@Test
+	public void getPercentile_Empty() {
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentile(50));
+		assertEquals(0, histogram.getMax());
+	}
+
+	@Test
+	public void getPercentile_SmallValuesExact() {
+		for (int i = 1; i <= 50; i++)
+			histogram.record(i);
+		assertEquals(50, histogram.getCount());
+		assertEquals(25, histogram.getPercentile(50));
+		assertEquals(50, histogram.getPercentile(100));
+		assertEquals(50, histogram.getMax());
+	}
+
+	@Test
+	public void getPercentile_RelativeError() {
+		for (int i = 1; i <= 1000; i++)
+			histogram.record(i * 1000000L);
+		assertEquals(500000000L, histogram.getPercentile(50), 500000000L * 0.035);
+		assertEquals(990000000L, histogram.getPercentile(99), 990000000L * 0.035);
+		assertEquals(1000000000L, histogram.getMax());
+	}
+
+	@Test
+	public void getBucketIndex_Monotonic() {
+		int previous = -1;
+		for (long value = 0; value < 100000; value += 7) {
+			int index = LatencyHistogram.getBucketIndex(value);
+			assertTrue(index >= previous);
+			assertTrue(value <= LatencyHistogram.getBucketUpperBound(index));
+			previous = index;
+		}
+		assertTrue(LatencyHistogram.getBucketUpperBound(
+				LatencyHistogram.getBucketIndex(Long.MAX_VALUE)) == Long.MAX_VALUE);
+	}
+
+	@Test
+	public void reset_DropsValues() {
+		histogram.record(42);
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_NonPositiveWindow() {
+		new LatencyHistogram(0);
+	}
+
+}